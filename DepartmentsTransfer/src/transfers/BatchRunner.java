@@ -0,0 +1,209 @@
+package transfers;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/** Пакетный режим: обрабатывает много исходных файлов в одной JVM.
+ * Файлы берутся из каталога (все *.txt по имени) или из списка - текстового файла с путем на строке;
+ * относительные пути в списке считаются от каталога списка. Результат каждого файла записывается
+ * в выходной каталог под именем {@code <имя входного файла>.out}.
+ * Каждый файл проходит чтение, поиск и запись в своем виртуальном потоке (на JVM без виртуальных потоков -
+ * в пуле обычных потоков). Поиск переводов нагружает процессор, поэтому одновременно его выполняют
+ * не больше заданного числа файлов; чтение и запись состава отделов идут параллельно с поиском.
+ * Разобранный файл занимает память до конца записи отчета, поэтому файлов в работе (от начала чтения
+ * до закрытия отчета) не больше {@link #LOADED_FILES_PER_SEARCH} на один одновременный поиск.
+ * Группы отделов с одинаковыми зарплатами в том же порядке строятся один раз на все файлы;
+ * группы отделов, у которых полный перебор больше {@link SourceGroups#MAX_GROUPS}, не хранятся,
+ * а перебираются на ходу.
+ * Сообщения о файле выводятся с его именем.
+ * @author Виталий Юдин
+ * @version 1.0
+ * @see GroupCache
+ */
+public class BatchRunner {
+    /** Сколько файлов может быть в работе на один одновременный поиск: пока один файл ищется, следующий читается */
+    static final int LOADED_FILES_PER_SEARCH = 2;
+
+    private BatchRunner() {
+    }
+
+    public static void main(String[] args) {
+        Path input = null;
+        Path outputDirectory = null;
+        int concurrency = Runtime.getRuntime().availableProcessors();
+        boolean valid = true;
+        try {
+            for (int i = 0; i < args.length && valid; i++) {
+                if (args[i].equals("-c") || args[i].equals("--concurrency")) {
+                    concurrency = Integer.parseInt(args[++i]);
+                } else if (input == null) {
+                    input = Paths.get(args[i]);
+                } else if (outputDirectory == null) {
+                    outputDirectory = Paths.get(args[i]);
+                } else {
+                    valid = false;
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            valid = false;
+        }
+        if (!valid || input == null || outputDirectory == null || concurrency < 1) {
+            System.out.println("Введите корректные пути каталогов");
+            System.out.println("Использование: BatchRunner <каталог или список входных файлов> <выходной каталог> [-c <число одновременных поисков>]");
+            return;
+        }
+
+        try {
+            List<Path> inputs = listInputs(input);
+            Files.createDirectories(outputDirectory);
+            GroupCache cache = new GroupCache();
+            Semaphore loaded = new Semaphore(concurrency * LOADED_FILES_PER_SEARCH);
+            Semaphore searches = new Semaphore(concurrency);
+            ExecutorService executor = newExecutor();
+            int failed = 0;
+            try {
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (Path file : inputs) {
+                    Path output = outputDirectory.resolve(file.getFileName() + ".out");
+                    results.add(executor.submit(() -> processFile(file, output, cache, loaded, searches)));
+                }
+                // Дожидаемся всех файлов: непредвиденная ошибка одного файла не прерывает остальные
+                for (int i = 0; i < results.size(); i++) {
+                    try {
+                        if (!results.get(i).get()) failed++;
+                    } catch (ExecutionException e) {
+                        System.out.println(inputs.get(i).getFileName() + ": ошибка обработки файла: " + e.getCause());
+                        failed++;
+                    }
+                }
+            } finally {
+                executor.shutdown();
+            }
+            System.out.println("Готово. Обработано файлов: " + inputs.size() + ", с ошибками: " + failed
+                    + ", отделов из кеша групп: " + cache.getHitCount());
+        } catch (IOException e) {
+            System.out.println("Ошибка во время чтения списка файлов: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Обрабатывает один файл: чтение, поиск переводов и запись отчета
+     * @param input исходный файл
+     * @param output выходной файл
+     * @param cache общий кеш групп отделов
+     * @param loaded разрешения на файл в работе, от начала чтения до закрытия отчета
+     * @param searches разрешения на поиск переводов
+     * @return Возвращает false, если файл обработать не удалось
+     * @see TransfersTestDrive#readFile(String)
+     */
+    static boolean processFile(Path input, Path output, GroupCache cache, Semaphore loaded, Semaphore searches) {
+        String name = input.getFileName().toString();
+        try {
+            loaded.acquire();
+            long dispositionCount;
+            try {
+                ArrayList<Department> departments = TransfersTestDrive.readFile(input.toString(), name + ": ");
+                try (ReportWriter report = new ReportWriter(departments, output.toString())) {
+                    searches.acquire();
+                    try {
+                        makeDispositions(departments, cache, report);
+                    } finally {
+                        searches.release();
+                    }
+                    dispositionCount = report.getDispositionCount();
+                }
+            } finally {
+                loaded.release();
+            }
+            if (dispositionCount == 0) {
+                System.out.println(name + ": Допустимые перестановки отсутствуют.");
+            }
+            return true;
+        } catch (IOException e) {
+            System.out.println(name + ": ошибка во время чтения / записи файла.");
+        } catch (NumberFormatException e) {
+            System.out.println(name + ": ошибка с представлением зарплаты.");
+        } catch (IllegalStateException e) {
+            System.out.println(name + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    /** Вычисляет возможные переводы, беря группы отделов из общего кеша. Группы слишком больших
+     * для кеша отделов перебираются на ходу.
+     * Результат совпадает с {@link TransfersTestDrive#makeDispositions(ArrayList, DispositionSink)}
+     * @param departments список всех департаментов
+     * @param cache общий кеш групп отделов
+     * @param sink получатель переводов
+     * @throws IOException При ошибках вывода переводов
+     */
+    static void makeDispositions(ArrayList<Department> departments, GroupCache cache, DispositionSink sink) throws IOException {
+        TargetIndex.Selection targets = new TargetIndex(departments).newSelection();
+        for (Department dpt : departments) {
+            if (SourceGroups.isStorable(dpt)) {
+                cache.get(dpt).addDispositions(departments, dpt, targets, sink);
+            } else {
+                SourceGroups.streamDispositions(departments, dpt, targets, sink);
+            }
+        }
+    }
+
+    /** Составляет список входных файлов из каталога или списка
+     * @param input каталог или текстовый файл со списком путей
+     * @return Возвращает входные файлы
+     * @throws IOException При ошибках чтения каталога или списка, а также при повторе имени файла
+     */
+    static List<Path> listInputs(Path input) throws IOException {
+        List<Path> inputs = new ArrayList<>();
+        if (Files.isDirectory(input)) {
+            try (Stream<Path> files = Files.list(input)) {
+                files.filter(file -> Files.isRegularFile(file) && file.getFileName().toString().endsWith(".txt"))
+                        .sorted()
+                        .forEach(inputs::add);
+            }
+        } else {
+            Path base = input.toAbsolutePath().getParent();
+            for (String line : Files.readAllLines(input)) {
+                if (!line.trim().isEmpty()) {
+                    inputs.add(base.resolve(line.trim()));
+                }
+            }
+        }
+        // Результаты называются по имени входного файла, поэтому имена не должны повторяться
+        HashSet<Path> names = new HashSet<>();
+        for (Path file : inputs) {
+            if (!names.add(file.getFileName())) {
+                throw new IOException("Имя входного файла повторяется: " + file.getFileName());
+            }
+        }
+        return inputs;
+    }
+
+    /** Создает исполнителя с виртуальным потоком на задачу. На JVM без виртуальных потоков (до Java 21)
+     * возвращает пул обычных потоков: задачи большей частью ждут диск или разрешение на поиск
+     * @return Возвращает исполнителя задач
+     */
+    static ExecutorService newExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 4);
+        }
+    }
+}
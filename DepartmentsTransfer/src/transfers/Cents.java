@@ -0,0 +1,63 @@
+package transfers;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/** Вспомогательный класс для работы с зарплатами в копейках (long, масштаб 2).
+ * Все сравнения средних зарплат выполняются в копейках без создания объектов,
+ * BigDecimal нужен только для вывода результата.
+ * Округление совпадает с BigDecimal: HALF_EVEN до 2 знаков.
+ * @author Виталий Юдин
+ * @version 1.0
+ */
+public final class Cents {
+    /** Наибольшая зарплата и наибольшая сумма зарплат отдела в копейках. Сумма двух таких сумм
+     * (отдел-цель и переводимая группа, обмен групп) тоже помещается в long */
+    public static final long MAX_CENTS = Long.MAX_VALUE / 4;
+    private static final BigDecimal MAX_SALARY = toBigDecimal(MAX_CENTS);
+
+    private Cents() {
+    }
+
+    /** Проверяет, что зарплата помещается в допустимый диапазон копеек
+     * @param salary неотрицательная зарплата
+     * @return Возвращает false, если зарплата больше {@link #MAX_CENTS} копеек
+     */
+    public static boolean isInRange(BigDecimal salary) {
+        return salary.compareTo(MAX_SALARY) <= 0;
+    }
+
+    /** Переводит зарплату в копейки
+     * @param salary зарплата
+     * @return Возвращает зарплату в копейках, округленную по HALF_EVEN
+     * @throws ArithmeticException Если зарплата не помещается в long
+     */
+    public static long toCents(BigDecimal salary) {
+        return salary.setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    /** Переводит копейки обратно в BigDecimal с масштабом 2
+     * @param cents сумма в копейках
+     * @return Возвращает сумму в формате BigDecimal
+     */
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /** Вычисляет среднее в копейках, округляя по HALF_EVEN, как BigDecimal.divide(size, 2, HALF_EVEN)
+     * @param sum сумма в копейках
+     * @param count количество слагаемых
+     * @return Возвращает среднее в копейках, для пустой группы 0
+     */
+    public static long average(long sum, int count) {
+        if (count == 0) {
+            return 0;
+        }
+        long quotient = Math.floorDiv(sum, count);
+        long twiceRemainder = 2 * Math.floorMod(sum, count);
+        if (twiceRemainder > count || (twiceRemainder == count && (quotient & 1) != 0)) {
+            quotient++;
+        }
+        return quotient;
+    }
+}
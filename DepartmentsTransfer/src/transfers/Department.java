@@ -0,0 +1,206 @@
+package transfers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+
+/** Класс служит для хранения департамента со списком сотрудников и возможными перемещениями.
+ * Поля: Название, Список сотрудников
+ * @author Виталий Юдин
+ * @version 1.0
+ */
+public class Department {
+    /** Заголовок таблицы состава департамента */
+    static final String TABLE_HEADER = String.format("%-30s%-15s%-8s", "ФИО", "Отдел", "Зарплата");
+    static final String TABLE_LINE = "-----------------------------------------------------";
+    static final String TABLE_FOOTER = "\n\r==================================================================\n\r";
+    private static final String AVERAGE_SALARY_TITLE = String.format("%-45s", "Средняя зарплата ");
+
+    private String name;
+    private ArrayList<Employee> listOfEmployees;
+    /** Зарплаты сотрудников в копейках и их сумма. Сбрасываются при изменении состава */
+    private long[] salaryCents;
+    private long salarySumCents;
+    /** Отформатированные колонки таблицы состава: ФИО и зарплата каждого сотрудника, название департамента.
+     * Форматируются один раз и сбрасываются при изменении состава или названия */
+    private String[] nameColumns;
+    private String[] salaryColumns;
+    private String nameColumn;
+
+    /** Создает новый департамент с указанным названием
+     * @param name название департамента
+     * @see TransfersTestDrive#readFile(String)
+     */
+    public Department(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+        nameColumn = null;
+    }
+
+    public ArrayList<Employee> getListOfEmployees() {
+        if (listOfEmployees == null) {
+            listOfEmployees = new ArrayList<>();
+        }
+        return listOfEmployees;
+    }
+
+    public void addToEmployeeList(Employee employee) {
+        getListOfEmployees().add(employee);
+        salaryCents = null;
+        nameColumns = null;
+    }
+
+    public void removeFromEmployeeList(Employee employee) {
+        getListOfEmployees().remove(employee);
+        salaryCents = null;
+        nameColumns = null;
+    }
+
+    /** Меняет зарплату сотрудника департамента. Зарплату нужно менять через департамент,
+     * иначе закешированные суммы и строки таблицы состава останутся прежними
+     * @param employee сотрудник этого департамента
+     * @param salary новая зарплата
+     * @see OrgModel#updateSalary(Department, Employee, BigDecimal)
+     */
+    public void updateEmployeeSalary(Employee employee, BigDecimal salary) {
+        employee.setSalary(salary);
+        salaryCents = null;
+        nameColumns = null;
+    }
+
+    /** Возвращает зарплаты сотрудников в копейках в порядке списка сотрудников.
+     * Массив строится один раз и переиспользуется до изменения состава департамента
+     * @return Возвращает массив зарплат в копейках
+     * @throws IllegalStateException Если сумма зарплат больше {@link Cents#MAX_CENTS}
+     */
+    public long[] getSalaryCents() {
+        if (salaryCents == null) {
+            listOfEmployees = getListOfEmployees();
+            long[] cents = new long[listOfEmployees.size()];
+            long sum = 0;
+            for (int i = 0; i < cents.length; i++) {
+                cents[i] = listOfEmployees.get(i).getSalaryCents();
+                if (cents[i] > Cents.MAX_CENTS - sum) {
+                    throw new IllegalStateException("Сумма зарплат отдела " + name + " слишком велика");
+                }
+                sum += cents[i];
+            }
+            salarySumCents = sum;
+            salaryCents = cents;
+        }
+        return salaryCents;
+    }
+
+    public long getSalarySumCents() {
+        getSalaryCents();
+        return salarySumCents;
+    }
+
+    /** Вычисляет среднюю зарплату департамента в копейках
+     * @return Возвращает среднюю зарплату департамента в копейках, для пустого департамента 0
+     */
+    public long getAverageSalaryCents() {
+        return Cents.average(getSalarySumCents(), getSalaryCents().length);
+    }
+
+    public ArrayList<String> printAllEmployees() {
+        ArrayList<String> composition = new ArrayList<>();
+        composition.add(TABLE_HEADER);
+        composition.add(TABLE_LINE);
+        for (int i = 0; i < getListOfEmployees().size(); i++) {
+            composition.add(getEmployeeRow(i, this));
+        }
+        composition.add(formatAverageSalary(getAverageSalaryCents()));
+        composition.add(TABLE_FOOTER);
+        return composition;
+    }
+
+    /** Возвращает строку таблицы состава для сотрудника этого департамента.
+     * Колонки ФИО и зарплаты форматируются один раз, поэтому сотрудника можно показать
+     * и в составе другого департамента (при переводе) без повторного форматирования
+     * @param index номер сотрудника в списке департамента
+     * @param shownIn департамент, в составе которого выводится сотрудник
+     * @return Возвращает строку с ФИО, названием департамента и зарплатой
+     * @see ReportWriter
+     */
+    public String getEmployeeRow(int index, Department shownIn) {
+        if (nameColumns == null) {
+            listOfEmployees = getListOfEmployees();
+            String[] names = new String[listOfEmployees.size()];
+            String[] salaries = new String[names.length];
+            for (int i = 0; i < names.length; i++) {
+                Employee employee = listOfEmployees.get(i);
+                names[i] = String.format("%-30s", employee.getName());
+                salaries[i] = String.format("%8s", employee.getSalary());
+            }
+            salaryColumns = salaries;
+            nameColumns = names;
+        }
+        return nameColumns[index] + shownIn.getNameColumn() + salaryColumns[index];
+    }
+
+    private String getNameColumn() {
+        if (nameColumn == null) {
+            nameColumn = String.format("%-15s", getName());
+        }
+        return nameColumn;
+    }
+
+    /** Форматирует итоговую строку таблицы состава со средней зарплатой
+     * @param averageSalaryCents средняя зарплата в копейках
+     * @return Возвращает строку со средней зарплатой
+     */
+    static String formatAverageSalary(long averageSalaryCents) {
+        String value = Cents.toBigDecimal(averageSalaryCents).toString();
+        StringBuilder line = new StringBuilder(AVERAGE_SALARY_TITLE);
+        for (int i = value.length(); i < 8; i++) {
+            line.append(' ');
+        }
+        return line.append(value).toString();
+    }
+
+    /** Вычисляет среднюю зарплату департамента
+     * @return Возвращает среднюю зарплату департамента в формате BigDecimal
+     */
+    public BigDecimal getAverageSalary() {
+        if (getListOfEmployees().size() != 0) {
+            return Cents.toBigDecimal(getAverageSalaryCents());
+        } else {
+            return BigDecimal.ZERO;
+        }
+    }
+
+    /** Возвращает возможные перестановки (группы сотрудников) для департамента.
+     * Группы не хранятся, а строятся по одной во время обхода. Обход останавливается
+     * на первой группе, средняя зарплата которой выше средней по департаменту.
+     * @return Возвращает ленивую последовательность групп сотрудников
+     * @see PermutationIterator
+     * @see TransfersTestDrive#makeDispositions(ArrayList, DispositionSink)
+     */
+    public Iterable<ArrayList<Employee>> getPermutations() {
+        return this::permutationIterator;
+    }
+
+    /** Создает перебор групп сотрудников департамента, см. {@link #getPermutations()}
+     * @return Возвращает новый перебор групп
+     */
+    public PermutationIterator permutationIterator() {
+        return new PermutationIterator(getListOfEmployees(), getSalaryCents(), getAverageSalaryCents());
+    }
+
+    /** Создает перебор групп департамента, ограниченный диапазоном масок
+     * @param firstMask первая маска диапазона
+     * @param lastMask последняя маска диапазона (включительно)
+     * @return Возвращает новый перебор групп
+     * @see PermutationIterator#getPermutationCount(int)
+     */
+    public PermutationIterator permutationIterator(long firstMask, long lastMask) {
+        return new PermutationIterator(getListOfEmployees(), getSalaryCents(), getAverageSalaryCents(), firstMask, lastMask);
+    }
+}
@@ -0,0 +1,20 @@
+package transfers;
+
+import java.io.IOException;
+
+/** Получатель найденных переводов сотрудников.
+ * Перебор передает каждый перевод сразу, как только нашел его, и ничего не накапливает.
+ * @author Виталий Юдин
+ * @version 1.0
+ * @see ReportWriter
+ * @see TransfersTestDrive#makeDispositions(java.util.ArrayList, DispositionSink)
+ */
+public interface DispositionSink {
+    /** Принимает очередной перевод группы сотрудников
+     * @param from отдел, ИЗ которого переводим
+     * @param to отдел, КУДА переводим
+     * @param groupMask маска группы: бит i выставлен, если переводится i-й сотрудник отдела from
+     * @throws IOException При ошибках вывода перевода
+     */
+    void accept(Department from, Department to, long groupMask) throws IOException;
+}
@@ -1,3 +1,5 @@
+package transfers;
+
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
@@ -11,6 +13,8 @@ public class Employee {
     private String name;
     /**Свойство - Зарплата*/
     private BigDecimal salary;
+    /**Свойство - Зарплата в копейках, для быстрых вычислений*/
+    private long salaryCents;
 
     /** Метод для расчета средней зарплаты отдельной группы сотрудников.
      *  Как правило, это группа из одного отдела.
@@ -34,7 +38,7 @@ public class Employee {
      */
     public Employee(String name, BigDecimal salary) {
         this.name = name;
-        this.salary = salary;
+        setSalary(salary);
     }
 
     public String getName() {
@@ -51,6 +55,11 @@ public class Employee {
 
     public void setSalary(BigDecimal salary) {
         this.salary = salary;
+        this.salaryCents = Cents.toCents(salary);
+    }
+
+    public long getSalaryCents() {
+        return salaryCents;
     }
 
     public String toString() {
@@ -0,0 +1,199 @@
+package transfers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+/** Класс для поиска обменов: группа A переходит из отдела X в отдел Y, а группа B - из Y в X,
+ * и после обмена растут (округленные) средние ЗП обоих отделов.
+ * Полный перебор пар групп стоит 2^n * 2^m для каждой пары отделов, поэтому используется встреча посередине.
+ * При численностях групп p и q новая численность каждого отдела известна, и оба условия зависят только
+ * от разности сумм d = сумма(B) - сумма(A): средняя X растет при d не меньше некоторого порога,
+ * средняя Y - при d не больше другого порога. Группы каждого отдела хранятся в таблицах по численности,
+ * отсортированных по сумме, и подходящие B для всех A находятся одним проходом двух указателей.
+ * В памяти одновременно только таблицы двух отделов: 2^n элементов на отдел, поэтому численность
+ * отдела ограничена {@link #MAX_EMPLOYEES}; более крупные отделы в обменах не участвуют.
+ * Число допустимых обменов растет как произведение 2^n * 2^m и, в отличие от переводов, не ограничено
+ * ранней остановкой перебора, поэтому поиск останавливается после заданного числа обменов.
+ * @author Виталий Юдин
+ * @version 1.0
+ * @see ExchangeSink
+ */
+public class ExchangeSearch {
+    /** Максимальное число сотрудников отдела для поиска обменов: таблица групп занимает 2^n пар long */
+    static final int MAX_EMPLOYEES = 20;
+    /** Число обменов, после которого поиск останавливается, если предел не задан в параметрах */
+    static final int DEFAULT_LIMIT = 1000;
+
+    private ExchangeSearch() {
+    }
+
+    /** Находит допустимые обмены между парами отделов и передает их получателю, но не больше limit обменов.
+     * Пары отделов идут в порядке списка департаментов, внутри пары - по численностям групп,
+     * затем по сумме и маске группы первого отдела, затем второго.
+     * Отделы больше {@link #MAX_EMPLOYEES} сотрудников пропускаются с сообщением в консоль
+     * @param departments список всех департаментов
+     * @param limit наибольшее число обменов
+     * @param sink получатель обменов
+     * @return Возвращает false, если поиск остановлен на пределе limit
+     * @throws IOException При ошибках вывода обменов
+     * @see Options#getExchangeLimit()
+     */
+    static boolean findExchanges(ArrayList<Department> departments, int limit, ExchangeSink sink) throws IOException {
+        boolean[] searchable = new boolean[departments.size()];
+        for (int i = 0; i < searchable.length; i++) {
+            Department dpt = departments.get(i);
+            int size = dpt.getListOfEmployees().size();
+            searchable[i] = size > 0 && size <= MAX_EMPLOYEES;
+            if (size > MAX_EMPLOYEES) {
+                System.out.println("Отдел " + dpt.getName() + " пропущен при поиске обменов: сотрудников больше "
+                        + MAX_EMPLOYEES);
+            }
+        }
+        long remaining = limit;
+        for (int x = 0; x < departments.size(); x++) {
+            if (!searchable[x]) continue;
+            Department first = departments.get(x);
+            SubsetTable firstTable = new SubsetTable(first);
+            for (int y = x + 1; y < departments.size(); y++) {
+                if (!searchable[y]) continue;
+                Department second = departments.get(y);
+                remaining = findExchanges(first, firstTable, second, new SubsetTable(second), remaining, sink);
+                if (remaining == 0) return false;
+            }
+        }
+        return true;
+    }
+
+    /** Находит обмены между двумя отделами, перебирая численности групп
+     * @return Возвращает, сколько обменов еще можно вывести
+     */
+    private static long findExchanges(Department first, SubsetTable firstTable, Department second,
+                                      SubsetTable secondTable, long remaining, ExchangeSink sink) throws IOException {
+        int firstSize = first.getListOfEmployees().size();
+        int secondSize = second.getListOfEmployees().size();
+        long firstSum = first.getSalarySumCents();
+        long secondSum = second.getSalarySumCents();
+        long firstAverage = first.getAverageSalaryCents();
+        long secondAverage = second.getAverageSalaryCents();
+        for (int p = 1; p <= firstSize; p++) {
+            long[] sumsA = firstTable.sums[p];
+            long[] masksA = firstTable.masks[p];
+            for (int q = 1; q <= secondSize; q++) {
+                long[] sumsB = secondTable.sums[q];
+                long[] masksB = secondTable.masks[q];
+                // Возможные разности сумм групп этих численностей
+                long low = sumsB[0] - sumsA[sumsA.length - 1];
+                long high = sumsB[sumsB.length - 1] - sumsA[0];
+                int newFirstSize = firstSize - p + q;
+                int newSecondSize = secondSize - q + p;
+                // Средняя X растет при d >= minDifference: ищем наименьшую такую разность
+                while (low < high) {
+                    long middle = low + ((high - low) >> 1);
+                    if (Cents.average(firstSum + middle, newFirstSize) > firstAverage) {
+                        high = middle;
+                    } else {
+                        low = middle + 1;
+                    }
+                }
+                if (Cents.average(firstSum + low, newFirstSize) <= firstAverage) continue;
+                long minDifference = low;
+                // Средняя Y растет при d <= maxDifference: ищем наибольшую, не меньше minDifference
+                high = sumsB[sumsB.length - 1] - sumsA[0];
+                while (low < high) {
+                    long middle = high - ((high - low) >> 1);
+                    if (Cents.average(secondSum - middle, newSecondSize) > secondAverage) {
+                        low = middle;
+                    } else {
+                        high = middle - 1;
+                    }
+                }
+                if (Cents.average(secondSum - low, newSecondSize) <= secondAverage) continue;
+                long maxDifference = low;
+
+                // Для A по возрастанию суммы окно подходящих B [begin, end) только сдвигается вправо
+                int begin = 0;
+                int end = 0;
+                for (int a = 0; a < sumsA.length; a++) {
+                    while (begin < sumsB.length && sumsB[begin] - sumsA[a] < minDifference) begin++;
+                    if (end < begin) end = begin;
+                    while (end < sumsB.length && sumsB[end] - sumsA[a] <= maxDifference) end++;
+                    for (int b = begin; b < end; b++) {
+                        sink.acceptExchange(first, masksA[a], second, masksB[b]);
+                        if (--remaining == 0) return 0;
+                    }
+                }
+            }
+        }
+        return remaining;
+    }
+
+    /** Все группы одного отдела, разложенные по численности.
+     * Внутри численности группы отсортированы по сумме, при равной сумме - по маске
+     */
+    private static class SubsetTable {
+        private final long[][] sums;
+        private final long[][] masks;
+
+        /** Строит таблицу слиянием: группы без очередного сотрудника и группы с ним уже отсортированы,
+         * поэтому каждый шаг - линейное слияние, без общей сортировки
+         * @param dpt отдел
+         */
+        SubsetTable(Department dpt) {
+            long[] salaries = dpt.getSalaryCents();
+            int n = salaries.length;
+            if (n > MAX_EMPLOYEES) {
+                throw new IllegalStateException("Слишком много сотрудников для поиска обменов: " + n);
+            }
+            sums = new long[n + 1][];
+            masks = new long[n + 1][];
+            sums[0] = new long[1];
+            masks[0] = new long[1];
+            for (int k = 1; k <= n; k++) {
+                sums[k] = new long[0];
+                masks[k] = new long[0];
+            }
+            for (int i = 0; i < n; i++) {
+                // Сверху вниз, чтобы группы численности k - 1 были еще без i-го сотрудника
+                for (int k = i + 1; k >= 1; k--) {
+                    merge(k, salaries[i], 1L << i);
+                }
+            }
+        }
+
+        /** Сливает группы численности k с группами численности k - 1, дополненными сотрудником.
+         * Маски дополненных групп содержат только младшие биты, поэтому добавление старшего бита
+         * не меняет их порядка
+         */
+        private void merge(int k, long salary, long bit) {
+            long[] keptSums = sums[k];
+            long[] keptMasks = masks[k];
+            long[] addedSums = sums[k - 1];
+            long[] addedMasks = masks[k - 1];
+            long[] mergedSums = new long[keptSums.length + addedSums.length];
+            long[] mergedMasks = new long[mergedSums.length];
+            int i = 0;
+            int j = 0;
+            for (int m = 0; m < mergedSums.length; m++) {
+                boolean takeKept;
+                if (i == keptSums.length) {
+                    takeKept = false;
+                } else if (j == addedSums.length) {
+                    takeKept = true;
+                } else {
+                    long addedSum = addedSums[j] + salary;
+                    takeKept = keptSums[i] < addedSum
+                            || (keptSums[i] == addedSum && keptMasks[i] < (addedMasks[j] | bit));
+                }
+                if (takeKept) {
+                    mergedSums[m] = keptSums[i];
+                    mergedMasks[m] = keptMasks[i++];
+                } else {
+                    mergedSums[m] = addedSums[j] + salary;
+                    mergedMasks[m] = addedMasks[j++] | bit;
+                }
+            }
+            sums[k] = mergedSums;
+            masks[k] = mergedMasks;
+        }
+    }
+}
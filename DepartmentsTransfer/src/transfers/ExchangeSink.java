@@ -0,0 +1,21 @@
+package transfers;
+
+import java.io.IOException;
+
+/** Получатель найденных обменов сотрудниками между двумя отделами.
+ * Как и {@link DispositionSink}, получает каждый обмен сразу, как только он найден.
+ * @author Виталий Юдин
+ * @version 1.0
+ * @see ExchangeSearch
+ * @see ReportWriter
+ */
+public interface ExchangeSink {
+    /** Принимает очередной обмен: группа first переходит в отдел second, группа second - в отдел first
+     * @param first первый отдел обмена
+     * @param firstMask маска группы, уходящей из первого отдела
+     * @param second второй отдел обмена
+     * @param secondMask маска группы, уходящей из второго отдела
+     * @throws IOException При ошибках вывода обмена
+     */
+    void acceptExchange(Department first, long firstMask, Department second, long secondMask) throws IOException;
+}
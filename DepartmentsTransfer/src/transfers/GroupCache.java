@@ -0,0 +1,96 @@
+package transfers;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Общий для многих файлов кеш групп отделов. Ключ - последовательность зарплат отдела в копейках:
+ * от нее и только от нее зависят маски, средние и точка останова перебора групп.
+ * Одинаковый набор зарплат в другом порядке дает другие маски и другой порядок групп в отчете,
+ * поэтому ключ учитывает порядок.
+ * Группы отдела строит первый запросивший их поток, остальные потоки с тем же ключом ждут готовый результат.
+ * Общий объем кеша ограничен {@link #MAX_CACHED_GROUPS} группами: сверх него группы строятся, но не хранятся.
+ * Отделы, группы которых нельзя хранить ({@link SourceGroups#isStorable(Department)}), в кеш не попадают вовсе.
+ * @author Виталий Юдин
+ * @version 1.0
+ * @see SourceGroups
+ * @see BatchRunner
+ */
+public class GroupCache {
+    /** Наибольшее общее число хранимых групп: по 3 числа long на группу */
+    static final long MAX_CACHED_GROUPS = 1L << 22;
+
+    private final ConcurrentHashMap<SalaryKey, FutureTask<SourceGroups>> groups = new ConcurrentHashMap<>();
+    private final AtomicLong cachedGroups = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+
+    /** Возвращает группы отдела, строя их только при первом запросе для этой последовательности зарплат.
+     * Вызывается только для отделов, прошедших {@link SourceGroups#isStorable(Department)}
+     * @param dpt отдел-источник
+     * @return Возвращает группы отдела
+     * @throws IllegalStateException Если в отделе слишком много сотрудников для перебора групп
+     */
+    public SourceGroups get(Department dpt) {
+        SalaryKey key = new SalaryKey(dpt.getSalaryCents());
+        FutureTask<SourceGroups> task = groups.get(key);
+        if (task == null) {
+            FutureTask<SourceGroups> created = new FutureTask<>(() -> new SourceGroups(dpt));
+            task = groups.putIfAbsent(key, created);
+            if (task == null) {
+                created.run();
+                SourceGroups result = join(created);
+                if (cachedGroups.addAndGet(result.getCount()) > MAX_CACHED_GROUPS) {
+                    // Кеш заполнен - результат отдаем, но не храним
+                    groups.remove(key, created);
+                    cachedGroups.addAndGet(-result.getCount());
+                }
+                return result;
+            }
+        }
+        hits.increment();
+        return join(task);
+    }
+
+    /** Считает запросы, для которых группы не строились заново
+     * @return Возвращает количество попаданий в кеш
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    private static SourceGroups join(FutureTask<SourceGroups> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ожидание групп отдела прервано", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /** Ключ кеша: зарплаты отдела в копейках по порядку, хеш считается один раз */
+    private static class SalaryKey {
+        private final long[] salaries;
+        private final int hash;
+
+        SalaryKey(long[] salaries) {
+            this.salaries = salaries;
+            this.hash = Arrays.hashCode(salaries);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof SalaryKey && Arrays.equals(salaries, ((SalaryKey) other).salaries);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package transfers;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+/** Класс разбирает строки исходного файла вида {@code Фамилия; Отдел; Зарплата} и раскладывает
+ * сотрудников по департаментам. Департаменты ищутся по индексу (название - департамент), порядок
+ * департаментов - порядок их первого появления в файле.
+ * Разделитель ищется вручную, без регулярных выражений, а зарплата разбирается из буфера без промежуточных строк.
+ * @author Виталий Юдин
+ * @version 1.0
+ * @see TransfersTestDrive#readFile(String)
+ */
+public class LineParser {
+    private final LinkedHashMap<String, Department> departments = new LinkedHashMap<>();
+    /** Буфер для разбора зарплаты, растет под самое длинное значение */
+    private char[] salaryBuffer = new char[32];
+
+    /** Разбирает очередную строку файла и добавляет сотрудника в его департамент. Пустые строки пропускаются
+     * @param line строка файла
+     * @throws IOException При ошибках в строке (нет ФИО, департамента, неверное число полей).
+     *                     Сообщение исключения - текст ошибки для пользователя
+     * @throws NumberFormatException При ошибках в указании зарплаты (отрицательная, слишком большая, не число).
+     *                     Сообщение есть только у отрицательной и слишком большой зарплаты
+     */
+    public void parseLine(String line) throws IOException, NumberFormatException {
+        int length = line.length();
+        if (trimStart(line, 0, length) == length) return; // Пустая строка
+
+        // Ищем разделители. Как и String.split, пустые поля в конце строки не считаются
+        int first = line.indexOf(';');
+        int second = first < 0 ? -1 : line.indexOf(';', first + 1);
+        int third = second < 0 ? -1 : line.indexOf(';', second + 1);
+        int salaryEnd = third < 0 ? length : third;
+        if (second < 0 || salaryEnd == second + 1 || !onlySeparators(line, salaryEnd)) { // Проверка на количество элементов (должно быть 3)
+            throw new IOException(lines("Неверный формат данных.",
+                    "Данные должны быть указаны в формате <<Фамилия; Отдел; Зарплата(число)>>",
+                    "Ошибка в строке: \'" + line + "\'"));
+        }
+
+        String nextEmployeeName = trimmed(line, 0, first); // Фамилия очередного сотрудника
+        if (nextEmployeeName.length() == 0) {
+            throw new IOException(lines("Отсутствует ФИО сотрудника.",
+                    "Ошибка в строке: \'" + line + "\'"));
+        }
+
+        String nextEmployeeDpt = trimmed(line, first + 1, second); // Департамент очередного сотрудника
+        if (nextEmployeeDpt.length() == 0) {
+            throw new IOException(lines("Отсутствует название департамента сотрудника.",
+                    "Ошибка в строке: \'" + line + "\'"));
+        }
+
+        BigDecimal nextEmployeeSalary = parseSalary(line, second + 1, salaryEnd); // Зарплата очередного сотрудника
+        if (nextEmployeeSalary.signum() < 0) {
+            throw new NumberFormatException(lines("Зарплата не может быть отрицательным числом",
+                    "Ошибка в строке: \'" + line + "\'"));
+        }
+        if (!Cents.isInRange(nextEmployeeSalary)) {
+            throw new NumberFormatException(lines("Зарплата слишком велика",
+                    "Ошибка в строке: \'" + line + "\'"));
+        }
+
+        // Теперь, когда все данные есть, создаем очередного сотрудника и находим его отдел
+        Employee nextEmployee = new Employee(nextEmployeeName, nextEmployeeSalary);
+        Department dpt = departments.get(nextEmployeeDpt);
+        if (dpt == null) { // Отдела еще нет - добавляем его
+            dpt = new Department(nextEmployeeDpt);
+            departments.put(nextEmployeeDpt, dpt);
+        }
+        dpt.addToEmployeeList(nextEmployee);
+    }
+
+    /** Возвращает индекс департаментов, разобранных на текущий момент
+     * @return Возвращает департаменты по названию, в порядке первого появления
+     */
+    public LinkedHashMap<String, Department> getDepartmentIndex() {
+        return departments;
+    }
+
+    /** Возвращает разобранные департаменты списком
+     * @return Возвращает департаменты в порядке первого появления в файле
+     */
+    public ArrayList<Department> getDepartments() {
+        return new ArrayList<>(departments.values());
+    }
+
+    /** Разбирает зарплату из части строки, обрезав пробелы */
+    private BigDecimal parseSalary(String line, int start, int end) {
+        start = trimStart(line, start, end);
+        end = trimEnd(line, start, end);
+        int length = end - start;
+        if (length > salaryBuffer.length) {
+            salaryBuffer = new char[length];
+        }
+        line.getChars(start, end, salaryBuffer, 0);
+        try {
+            return new BigDecimal(salaryBuffer, 0, length);
+        } catch (NumberFormatException e) {
+            throw new NumberFormatException(); // Не число - без сообщения для пользователя
+        }
+    }
+
+    /** Проверяет, что с позиции from и до конца строки идут только разделители (пустые поля) */
+    private static boolean onlySeparators(String line, int from) {
+        for (int i = from; i < line.length(); i++) {
+            if (line.charAt(i) != ';') return false;
+        }
+        return true;
+    }
+
+    private static String trimmed(String line, int start, int end) {
+        start = trimStart(line, start, end);
+        return line.substring(start, trimEnd(line, start, end));
+    }
+
+    /** Пропускает пробельные символы так же, как String.trim */
+    private static int trimStart(String line, int start, int end) {
+        while (start < end && line.charAt(start) <= ' ') start++;
+        return start;
+    }
+
+    private static int trimEnd(String line, int start, int end) {
+        while (end > start && line.charAt(end - 1) <= ' ') end--;
+        return end;
+    }
+
+    private static String lines(String... lines) {
+        return String.join(System.lineSeparator(), lines);
+    }
+}
@@ -0,0 +1,164 @@
+package transfers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/** Класс для чтения очень больших исходных файлов.
+ * Файл отображается в память (FileChannel.map) и делится на куски по границам строк.
+ * Каждый кусок декодируется из windows-1251 и разбирается в своем потоке в собственный индекс департаментов,
+ * затем индексы склеиваются по порядку кусков. Порядок департаментов и сотрудников внутри них
+ * совпадает с последовательным {@link TransfersTestDrive#readFile(String)}.
+ * @author Виталий Юдин
+ * @version 1.0
+ */
+public class MappedFileReader {
+    private static final Charset CHARSET = Charset.forName("windows-1251");
+    /** Минимальный и максимальный размер куска в байтах */
+    private static final long MIN_CHUNK_SIZE = 1L << 20;
+    private static final long MAX_CHUNK_SIZE = 1L << 26;
+
+    private MappedFileReader() {
+    }
+
+    /** Читает файл, отображая его в память, и разбирает куски параллельно
+     * @param inputFileName путь к исходному файлу
+     * @param parallelism количество потоков
+     * @return Возвращает список департаментов
+     * @throws IOException При ошибках в исходном файле (нет ФИО, департамента, зарплаты..)
+     * @throws NumberFormatException При ошибках в указании зарплаты (отрицательная, не число)
+     * @see LineParser
+     */
+    static ArrayList<Department> readFile(String inputFileName, int parallelism) throws IOException, NumberFormatException {
+        return readFile(inputFileName, parallelism, MIN_CHUNK_SIZE);
+    }
+
+    /** Читает файл, как {@link #readFile(String, int)}, с заданным минимальным размером куска.
+     * Маленькие куски нужны тестам, чтобы небольшой файл делился на много кусков
+     * @param inputFileName путь к исходному файлу
+     * @param parallelism количество потоков
+     * @param minChunkSize минимальный размер куска в байтах
+     * @return Возвращает список департаментов
+     * @throws IOException При ошибках в исходном файле (нет ФИО, департамента, зарплаты..)
+     * @throws NumberFormatException При ошибках в указании зарплаты (отрицательная, не число)
+     */
+    static ArrayList<Department> readFile(String inputFileName, int parallelism, long minChunkSize) throws IOException, NumberFormatException {
+        List<Chunk> chunks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(Paths.get(inputFileName), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long chunkSize = Math.min(MAX_CHUNK_SIZE, Math.max(minChunkSize, size / (parallelism * 4L)));
+            long start = 0;
+            while (start < size) {
+                long end = findLineEnd(channel, Math.min(size, start + chunkSize), size);
+                chunks.add(new Chunk(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start)));
+                start = end;
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Future<Chunk>> results = pool.invokeAll(chunks);
+            // Склеиваем индексы кусков по порядку. Первая ошибка по порядку кусков - первая ошибка в файле
+            LineParser merged = new LineParser();
+            Map<String, Department> departments = merged.getDepartmentIndex();
+            for (Future<Chunk> result : results) {
+                Chunk chunk = result.get();
+                if (chunk.error instanceof IOException) {
+                    TransfersTestDrive.printError(chunk.error);
+                    throw (IOException) chunk.error;
+                } else if (chunk.error instanceof NumberFormatException) {
+                    TransfersTestDrive.printError(chunk.error);
+                    throw (NumberFormatException) chunk.error;
+                }
+                for (Department dpt : chunk.parser.getDepartmentIndex().values()) {
+                    Department existing = departments.get(dpt.getName());
+                    if (existing == null) {
+                        departments.put(dpt.getName(), dpt);
+                    } else {
+                        for (Employee employee : dpt.getListOfEmployees()) {
+                            existing.addToEmployeeList(employee);
+                        }
+                    }
+                }
+            }
+            return merged.getDepartments();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Чтение файла прервано", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IOException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Находит конец строки: позицию сразу после первого '\n', начиная с from */
+    private static long findLineEnd(FileChannel channel, long from, long size) throws IOException {
+        if (from >= size) return size;
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long position = from;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /** Кусок файла из целых строк и результат его разбора */
+    private static class Chunk implements Callable<Chunk> {
+        private final MappedByteBuffer bytes;
+        private final LineParser parser = new LineParser();
+        /** Первая ошибка разбора в куске, строки после нее не разбираются */
+        private Exception error;
+
+        Chunk(MappedByteBuffer bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public Chunk call() {
+            long allocated = Metrics.allocatedBytes();
+            CharBuffer text = CHARSET.decode(bytes);
+            int length = text.length();
+            int lineStart = 0;
+            try {
+                // Концы строк - как у BufferedReader.readLine: \n, \r или \r\n
+                for (int i = 0; i < length; i++) {
+                    char c = text.get(i);
+                    if (c == '\n' || c == '\r') {
+                        parser.parseLine(text.subSequence(lineStart, i).toString());
+                        if (c == '\r' && i + 1 < length && text.get(i + 1) == '\n') i++;
+                        lineStart = i + 1;
+                    }
+                }
+                if (lineStart < length) {
+                    parser.parseLine(text.subSequence(lineStart, length).toString());
+                }
+            } catch (IOException | NumberFormatException e) {
+                error = e;
+            }
+            Metrics.addAllocated(Metrics.Stage.READ, allocated);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package transfers;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/** Метрики запуска: время и выделение памяти по этапам, счетчики групп и переводов, число групп по отделам.
+ * По умолчанию выключены: каждая точка замера - одна проверка статического флага, без вызовов часов и без объектов.
+ * Горячие циклы ничего не пишут в общие счетчики: группы считаются по маскам перебора и сдаются
+ * один раз на отдел или диапазон масок.
+ * Выделение памяти - оценка по счетчику текущего потока (com.sun.management.ThreadMXBean);
+ * рабочие потоки пулов сдают свою часть сами.
+ * После включения метрики доступны через JMX (transfers:type=Metrics) и записываются в JSON рядом с результатом.
+ * @author Виталий Юдин
+ * @version 1.0
+ * @see MetricsMBean
+ */
+public final class Metrics implements MetricsMBean {
+    /** Этапы запуска. REPORT - состав отделов в начале отчета и закрытие файла, идет вне поиска.
+     * WRITE - запись переводов и обменов: она идет во время поиска, поэтому ее время и выделенная память
+     * входят и в этапы поиска; в общий объем выделенной памяти WRITE отдельно не добавляется */
+    public enum Stage {
+        READ, REPORT, DISPOSITIONS, EXCHANGES, WRITE
+    }
+
+    private static final Metrics INSTANCE = new Metrics();
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static boolean enabled;
+
+    private final LongAdder[] stageNanos = newAdders();
+    private final LongAdder[] stageAllocated = newAdders();
+    private final LongAdder groupsGenerated = new LongAdder();
+    private final LongAdder groupsPruned = new LongAdder();
+    private final LongAdder dispositionsEmitted = new LongAdder();
+    private final LongAdder exchangesEmitted = new LongAdder();
+    /** Перебранные группы по названию отдела */
+    private final ConcurrentHashMap<String, LongAdder> departmentGroups = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    /** Включает сбор метрик и регистрирует их в JMX. Вызывается до начала работы
+     * @see TransfersTestDrive#main(String[])
+     */
+    public static synchronized void enable() {
+        if (enabled) return;
+        enabled = true;
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+            if (threads.isThreadAllocatedMemorySupported()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+            }
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName("transfers:type=Metrics"));
+        } catch (JMException e) {
+            System.out.println("Метрики недоступны через JMX: " + e.getMessage());
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Начало замера времени
+     * @return Возвращает текущее время в наносекундах или 0, если метрики выключены
+     */
+    public static long nanoTime() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /** Начало замера выделения памяти
+     * @return Возвращает объем памяти, выделенной текущим потоком, или 0, если метрики выключены или замер не поддерживается
+     */
+    public static long allocatedBytes() {
+        if (enabled && THREADS instanceof com.sun.management.ThreadMXBean) {
+            long allocated = ((com.sun.management.ThreadMXBean) THREADS).getCurrentThreadAllocatedBytes();
+            return Math.max(allocated, 0);
+        }
+        return 0;
+    }
+
+    /** Завершает замер этапа в текущем потоке: время и выделенную память
+     * @param stage этап
+     * @param startNanos результат {@link #nanoTime()} в начале замера
+     * @param startAllocated результат {@link #allocatedBytes()} в начале замера
+     */
+    public static void addStage(Stage stage, long startNanos, long startAllocated) {
+        if (!enabled) return;
+        INSTANCE.stageNanos[stage.ordinal()].add(System.nanoTime() - startNanos);
+        addAllocated(stage, startAllocated);
+    }
+
+    /** Сдает память, выделенную текущим потоком с начала замера. Для рабочих потоков пулов
+     * @param stage этап
+     * @param startAllocated результат {@link #allocatedBytes()} в начале замера
+     */
+    public static void addAllocated(Stage stage, long startAllocated) {
+        if (!enabled) return;
+        INSTANCE.stageAllocated[stage.ordinal()].add(allocatedBytes() - startAllocated);
+    }
+
+    /** Учитывает перебор групп отдела
+     * @param dpt отдел
+     * @param generated количество перебранных групп
+     * @param pruned количество групп, отсеченных без перебора
+     */
+    public static void addGroups(Department dpt, long generated, long pruned) {
+        if (!enabled) return;
+        INSTANCE.groupsGenerated.add(generated);
+        INSTANCE.groupsPruned.add(pruned);
+        INSTANCE.departmentGroups.computeIfAbsent(dpt.getName(), name -> new LongAdder()).add(generated);
+    }
+
+    public static void addDispositions(long count) {
+        if (enabled) INSTANCE.dispositionsEmitted.add(count);
+    }
+
+    public static void addExchanges(long count) {
+        if (enabled) INSTANCE.exchangesEmitted.add(count);
+    }
+
+    /** Записывает сводку метрик в JSON-файл рядом с выходным: {@code <выходной файл>.metrics.json}
+     * @param outputFileName путь к выходному файлу
+     * @param departments список всех департаментов, задает порядок отделов в сводке
+     * @throws IOException При ошибках записи файла
+     */
+    public static void writeJson(String outputFileName, ArrayList<Department> departments) throws IOException {
+        if (!enabled) return;
+        Metrics m = INSTANCE;
+        try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(outputFileName + ".metrics.json"), StandardCharsets.UTF_8))) {
+            out.write("{\n  \"stages\": {");
+            Stage[] stages = Stage.values();
+            for (int i = 0; i < stages.length; i++) {
+                out.write(i == 0 ? "\n" : ",\n");
+                out.write("    \"" + stages[i].name().toLowerCase() + "\": {\"millis\": " + m.getMillis(stages[i])
+                        + ", \"allocatedBytes\": " + m.stageAllocated[i].sum() + "}");
+            }
+            out.write("\n  },\n");
+            out.write("  \"groupsGenerated\": " + m.getGroupsGenerated() + ",\n");
+            out.write("  \"groupsPruned\": " + m.getGroupsPruned() + ",\n");
+            out.write("  \"dispositionsEmitted\": " + m.getDispositionsEmitted() + ",\n");
+            out.write("  \"exchangesEmitted\": " + m.getExchangesEmitted() + ",\n");
+            out.write("  \"peakDepartmentGroups\": " + m.getPeakDepartmentGroups() + ",\n");
+            out.write("  \"departmentGroups\": {");
+            boolean first = true;
+            for (Department dpt : departments) {
+                LongAdder groups = m.departmentGroups.get(dpt.getName());
+                if (groups == null) continue;
+                out.write(first ? "\n" : ",\n");
+                out.write("    " + quote(dpt.getName()) + ": " + groups.sum());
+                first = false;
+            }
+            out.write("\n  }\n}\n");
+        }
+    }
+
+    @Override
+    public long getReadMillis() {
+        return getMillis(Stage.READ);
+    }
+
+    @Override
+    public long getReportMillis() {
+        return getMillis(Stage.REPORT);
+    }
+
+    @Override
+    public long getDispositionsMillis() {
+        return getMillis(Stage.DISPOSITIONS);
+    }
+
+    @Override
+    public long getExchangesMillis() {
+        return getMillis(Stage.EXCHANGES);
+    }
+
+    @Override
+    public long getWriteMillis() {
+        return getMillis(Stage.WRITE);
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        long total = 0;
+        for (Stage stage : Stage.values()) {
+            if (stage != Stage.WRITE) { // Запись уже учтена в этапах поиска
+                total += stageAllocated[stage.ordinal()].sum();
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public long getGroupsGenerated() {
+        return groupsGenerated.sum();
+    }
+
+    @Override
+    public long getGroupsPruned() {
+        return groupsPruned.sum();
+    }
+
+    @Override
+    public long getDispositionsEmitted() {
+        return dispositionsEmitted.sum();
+    }
+
+    @Override
+    public long getExchangesEmitted() {
+        return exchangesEmitted.sum();
+    }
+
+    @Override
+    public long getPeakDepartmentGroups() {
+        long peak = 0;
+        for (LongAdder groups : departmentGroups.values()) {
+            peak = Math.max(peak, groups.sum());
+        }
+        return peak;
+    }
+
+    private long getMillis(Stage stage) {
+        return stageNanos[stage.ordinal()].sum() / 1_000_000;
+    }
+
+    private static LongAdder[] newAdders() {
+        LongAdder[] adders = new LongAdder[Stage.values().length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /** Записывает строку как строковый литерал JSON */
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < ' ') {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
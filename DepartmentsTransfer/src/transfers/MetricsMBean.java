@@ -0,0 +1,30 @@
+package transfers;
+
+/** Интерфейс JMX для просмотра метрик запуска, см. {@link Metrics}.
+ * Время этапов - в миллисекундах, выделение памяти - в байтах (оценка)
+ * @author Виталий Юдин
+ * @version 1.0
+ */
+public interface MetricsMBean {
+    long getReadMillis();
+
+    long getReportMillis();
+
+    long getDispositionsMillis();
+
+    long getExchangesMillis();
+
+    long getWriteMillis();
+
+    long getAllocatedBytes();
+
+    long getGroupsGenerated();
+
+    long getGroupsPruned();
+
+    long getDispositionsEmitted();
+
+    long getExchangesEmitted();
+
+    long getPeakDepartmentGroups();
+}
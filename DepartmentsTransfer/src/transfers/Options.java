@@ -0,0 +1,106 @@
+package transfers;
+
+/** Класс служит для разбора аргументов командной строки.
+ * Формат: {@code <входной файл> <выходной файл> [-p <число потоков>] [--mmap] [--top <K>] [--exchange] [--exchange-limit <N>] [--metrics] [--snapshot]}
+ * @author Виталий Юдин
+ * @version 1.0
+ */
+public class Options {
+    private String inputFileName;
+    private String outputFileName;
+    /** Количество потоков для поиска переводов, 1 - последовательный перебор */
+    private int parallelism = 1;
+    /** Читать исходный файл через отображение в память, разбирая куски параллельно */
+    private boolean mappedInput;
+    /** Сколько лучших переводов вывести, 0 - выводить все допустимые переводы */
+    private int topCount;
+    /** Искать также обмены группами сотрудников между парами отделов */
+    private boolean exchangeSearch;
+    /** Наибольшее число выводимых обменов */
+    private int exchangeLimit = ExchangeSearch.DEFAULT_LIMIT;
+    /** Собирать метрики запуска и записать их сводку рядом с выходным файлом */
+    private boolean metrics;
+    /** Загружать орг.структуру из двоичного снимка исходного файла и сохранять его после разбора */
+    private boolean snapshot;
+
+    private Options() {
+    }
+
+    /** Разбирает аргументы командной строки
+     * @param args аргументы командной строки
+     * @return Возвращает разобранные параметры или null, если аргументы некорректны
+     * @see TransfersTestDrive#main(String[])
+     */
+    public static Options parse(String[] args) {
+        Options options = new Options();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.equals("-p") || arg.equals("--parallelism")) {
+                    options.parallelism = Integer.parseInt(args[++i]);
+                    if (options.parallelism < 1) return null;
+                } else if (arg.equals("-m") || arg.equals("--mmap")) {
+                    options.mappedInput = true;
+                } else if (arg.equals("-t") || arg.equals("--top")) {
+                    options.topCount = Integer.parseInt(args[++i]);
+                    if (options.topCount < 1) return null;
+                } else if (arg.equals("-x") || arg.equals("--exchange")) {
+                    options.exchangeSearch = true;
+                } else if (arg.equals("--exchange-limit")) {
+                    options.exchangeLimit = Integer.parseInt(args[++i]);
+                    if (options.exchangeLimit < 1) return null;
+                } else if (arg.equals("--metrics")) {
+                    options.metrics = true;
+                } else if (arg.equals("-s") || arg.equals("--snapshot")) {
+                    options.snapshot = true;
+                } else if (options.inputFileName == null) {
+                    options.inputFileName = arg;
+                } else if (options.outputFileName == null) {
+                    options.outputFileName = arg;
+                } else {
+                    return null;
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            return null;
+        }
+        if (options.inputFileName == null || options.outputFileName == null) return null;
+        return options;
+    }
+
+    public String getInputFileName() {
+        return inputFileName;
+    }
+
+    public String getOutputFileName() {
+        return outputFileName;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public boolean isMappedInput() {
+        return mappedInput;
+    }
+
+    public int getTopCount() {
+        return topCount;
+    }
+
+    public boolean isExchangeSearch() {
+        return exchangeSearch;
+    }
+
+    public int getExchangeLimit() {
+        return exchangeLimit;
+    }
+
+    public boolean isMetrics() {
+        return metrics;
+    }
+
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+}
@@ -0,0 +1,214 @@
+package transfers;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/** Долгоживущая модель орг.структуры для расчетов "что если".
+ * Для каждого отдела-источника один раз перебираются группы до первой группы выше средней отдела,
+ * их маски и средние ЗП хранятся. Группы отдела зависят только от его состава, поэтому при изменении
+ * сотрудника перебор повторяется только для измененного отдела. Для остальных отделов по отсортированным
+ * средним их групп двоичным поиском проверяется, изменился ли набор групп, переводимых в измененный отдел.
+ * Переводы выдаются из сохраненных групп в том же порядке, что и при полном переборе.
+ * Модель не потокобезопасна. Хранит 3 числа long на каждую допустимую группу отдела; группы отделов,
+ * которые нельзя хранить ({@link SourceGroups#isStorable(Department)}), перебираются заново при каждом запросе.
+ * @author Виталий Юдин
+ * @version 1.0
+ * @see TransfersTestDrive#makeDispositions(ArrayList, DispositionSink)
+ * @see SourceGroups
+ */
+public class OrgModel {
+    private final ArrayList<Department> departments;
+    /** Номер отдела в списке департаментов */
+    private final HashMap<Department, Integer> positions = new HashMap<>();
+    /** Средние ЗП отделов в копейках и сохраненные группы отделов (null - группы не хранятся), в порядке списка департаментов */
+    private final long[] averages;
+    private final SourceGroups[] sources;
+    /** Индекс отделов по средней ЗП, строится заново после изменения любой средней */
+    private TargetIndex targetIndex;
+
+    /** Строит модель и один раз перебирает группы всех отделов
+     * @param departments список всех департаментов, дальше меняется только через модель
+     */
+    public OrgModel(ArrayList<Department> departments) {
+        this.departments = departments;
+        averages = new long[departments.size()];
+        sources = new SourceGroups[departments.size()];
+        for (int i = 0; i < sources.length; i++) {
+            Department dpt = departments.get(i);
+            positions.put(dpt, i);
+            averages[i] = dpt.getAverageSalaryCents();
+            sources[i] = groupsOf(dpt);
+        }
+    }
+
+    public ArrayList<Department> getDepartments() {
+        return departments;
+    }
+
+    /** Добавляет сотрудника в отдел
+     * @param dpt отдел модели
+     * @param employee новый сотрудник
+     * @return Возвращает отделы, переводы ИЗ которых изменились, в порядке списка департаментов
+     * @throws IllegalArgumentException Если отдел не входит в модель
+     */
+    public ArrayList<Department> addEmployee(Department dpt, Employee employee) {
+        int position = positionOf(dpt);
+        dpt.addToEmployeeList(employee);
+        return update(position);
+    }
+
+    /** Удаляет сотрудника из отдела
+     * @param dpt отдел модели
+     * @param employee сотрудник этого отдела
+     * @return Возвращает отделы, переводы ИЗ которых изменились, в порядке списка департаментов
+     * @throws IllegalArgumentException Если отдел не входит в модель или сотрудника в нем нет
+     */
+    public ArrayList<Department> removeEmployee(Department dpt, Employee employee) {
+        int position = positionOf(dpt);
+        checkEmployee(dpt, employee);
+        dpt.removeFromEmployeeList(employee);
+        return update(position);
+    }
+
+    /** Меняет зарплату сотрудника
+     * @param dpt отдел модели
+     * @param employee сотрудник этого отдела
+     * @param salary новая зарплата
+     * @return Возвращает отделы, переводы ИЗ которых изменились, в порядке списка департаментов
+     * @throws IllegalArgumentException Если отдел не входит в модель или сотрудника в нем нет
+     */
+    public ArrayList<Department> updateSalary(Department dpt, Employee employee, BigDecimal salary) {
+        int position = positionOf(dpt);
+        checkEmployee(dpt, employee);
+        dpt.updateEmployeeSalary(employee, salary);
+        return update(position);
+    }
+
+    /** Переводит сотрудника из одного отдела в другой
+     * @param from отдел модели, в котором сейчас сотрудник
+     * @param to отдел модели, куда переводим
+     * @param employee сотрудник отдела from
+     * @return Возвращает отделы, переводы ИЗ которых изменились, в порядке списка департаментов
+     * @throws IllegalArgumentException Если отдел не входит в модель или сотрудника в нем нет
+     */
+    public ArrayList<Department> moveEmployee(Department from, Department to, Employee employee) {
+        int fromPosition = positionOf(from);
+        int toPosition = positionOf(to);
+        checkEmployee(from, employee);
+        from.removeFromEmployeeList(employee);
+        to.addToEmployeeList(employee);
+        return update(fromPosition, toPosition);
+    }
+
+    /** Передает получателю все переводы орг.структуры в порядке полного перебора, не перебирая группы заново
+     * @param sink получатель переводов
+     * @throws IOException При ошибках вывода переводов
+     */
+    public void makeDispositions(DispositionSink sink) throws IOException {
+        TargetIndex.Selection targets = getTargetIndex().newSelection();
+        for (int i = 0; i < sources.length; i++) {
+            addDispositions(i, targets, sink);
+        }
+    }
+
+    /** Передает получателю переводы из одного отдела, например из отдела, который вернул метод изменения
+     * @param from отдел модели, ИЗ которого переводим
+     * @param sink получатель переводов
+     * @throws IOException При ошибках вывода переводов
+     * @throws IllegalArgumentException Если отдел не входит в модель
+     */
+    public void makeDispositions(Department from, DispositionSink sink) throws IOException {
+        addDispositions(positionOf(from), getTargetIndex().newSelection(), sink);
+    }
+
+    /** Считает переводы из одного отдела в другой без их перебора (группы нехранимых отделов перебираются)
+     * @param from отдел модели, ИЗ которого переводим
+     * @param to отдел модели, КУДА переводим
+     * @return Возвращает количество групп, которые можно перевести
+     * @throws IllegalArgumentException Если отдел не входит в модель
+     */
+    public long getDispositionCount(Department from, Department to) {
+        int fromPosition = positionOf(from);
+        int toPosition = positionOf(to);
+        return fromPosition == toPosition ? 0 : countAbove(fromPosition, averages[toPosition]);
+    }
+
+    /** Обновляет модель после изменения состава отделов и находит отделы с изменившимися переводами.
+     * Перебор групп повторяется только для измененных отделов. Если средняя отдела сдвинулась,
+     * переводы в него из другого отдела меняются только при наличии у того групп со средней
+     * между прежней и новой средней отдела
+     * @param changed номера измененных отделов
+     * @return Возвращает отделы, переводы ИЗ которых изменились, в порядке списка департаментов
+     */
+    private ArrayList<Department> update(int... changed) {
+        boolean[] affected = new boolean[sources.length];
+        for (int position : changed) {
+            Department dpt = departments.get(position);
+            long oldAverage = averages[position];
+            long newAverage = dpt.getAverageSalaryCents();
+            averages[position] = newAverage;
+            sources[position] = groupsOf(dpt);
+            affected[position] = true;
+            if (oldAverage == newAverage) continue;
+            targetIndex = null;
+            // Группа переводится в отдел, если ее средняя строго выше средней отдела
+            long low = Math.min(oldAverage, newAverage);
+            long high = Math.max(oldAverage, newAverage);
+            for (int i = 0; i < sources.length; i++) {
+                if (!affected[i] && countAbove(i, low) != countAbove(i, high)) {
+                    affected[i] = true;
+                }
+            }
+        }
+        ArrayList<Department> result = new ArrayList<>();
+        for (int i = 0; i < affected.length; i++) {
+            if (affected[i]) result.add(departments.get(i));
+        }
+        return result;
+    }
+
+    /** Перебирает и сохраняет группы отдела, если их можно хранить
+     * @return Возвращает группы отдела или null, если их нужно перебирать на ходу
+     */
+    private static SourceGroups groupsOf(Department dpt) {
+        return SourceGroups.isStorable(dpt) ? new SourceGroups(dpt) : null;
+    }
+
+    private void addDispositions(int position, TargetIndex.Selection targets, DispositionSink sink) throws IOException {
+        Department from = departments.get(position);
+        if (sources[position] != null) {
+            sources[position].addDispositions(departments, from, targets, sink);
+        } else {
+            SourceGroups.streamDispositions(departments, from, targets, sink);
+        }
+    }
+
+    private long countAbove(int position, long salary) {
+        return sources[position] != null
+                ? sources[position].countAbove(salary)
+                : SourceGroups.countAbove(departments.get(position), salary);
+    }
+
+    private TargetIndex getTargetIndex() {
+        if (targetIndex == null) {
+            targetIndex = new TargetIndex(departments);
+        }
+        return targetIndex;
+    }
+
+    private int positionOf(Department dpt) {
+        Integer position = positions.get(dpt);
+        if (position == null) {
+            throw new IllegalArgumentException("Отдел не входит в модель: " + dpt.getName());
+        }
+        return position;
+    }
+
+    private static void checkEmployee(Department dpt, Employee employee) {
+        if (!dpt.getListOfEmployees().contains(employee)) {
+            throw new IllegalArgumentException("Сотрудника " + employee + " нет в отделе " + dpt.getName());
+        }
+    }
+}
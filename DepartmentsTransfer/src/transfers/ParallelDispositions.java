@@ -0,0 +1,202 @@
+package transfers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Класс для параллельного поиска возможных переводов сотрудников на ForkJoinPool.
+ * Перебор делится на подзадачи по отделам, а перебор групп крупного отдела - еще и по диапазонам масок.
+ * Подзадачи копят найденные переводы в компактном виде (отдел + маска группы), а получателю они
+ * передаются из вызывающего потока в исходном порядке, поэтому итог совпадает с последовательным
+ * {@link TransfersTestDrive#makeDispositions(ArrayList, DispositionSink)} строка в строку.
+ * Одновременно считается не больше parallelism отделов впереди вывода, так что память ограничена
+ * переводами этих отделов, а не всей орг.структуры. Переводы одного крупного отдела все же копятся целиком.
+ * @author Виталий Юдин
+ * @version 1.0
+ */
+public class ParallelDispositions {
+    /** Количество масок в одной подзадаче */
+    static final long CHUNK_SIZE = 1L << 12;
+    /** Как часто (раз в сколько масок) подзадача проверяет, не остановлен ли перебор отдела раньше нее */
+    private static final long STOP_CHECK_MASK = (1L << 8) - 1;
+
+    private ParallelDispositions() {
+    }
+
+    /** Вычисляет возможные переводы сотрудников на пуле потоков и передает их получателю
+     * @param departments список всех департаментов
+     * @param parallelism количество потоков
+     * @param sink получатель переводов, вызывается только из текущего потока
+     * @throws IOException При ошибках вывода переводов
+     * @see TransfersTestDrive#makeDispositions(ArrayList, DispositionSink)
+     */
+    static void makeDispositions(ArrayList<Department> departments, int parallelism, DispositionSink sink) throws IOException {
+        TargetIndex index = new TargetIndex(departments); // Один индекс на все подзадачи
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Department> sources = new ArrayList<>();
+            for (Department dpt : departments) {
+                if (dpt.getListOfEmployees().size() > 1) { // Переводить можно, только если в отделе останется хотя бы 1 сотрудник
+                    sources.add(dpt);
+                }
+            }
+            // Впереди вывода идет не больше parallelism отделов, поэтому в памяти лежат переводы только этих отделов
+            ArrayDeque<DepartmentTask> window = new ArrayDeque<>();
+            int next = 0;
+            while (next < sources.size() || !window.isEmpty()) {
+                while (next < sources.size() && window.size() < parallelism) {
+                    DepartmentTask task = new DepartmentTask(departments, index, sources.get(next++), parallelism);
+                    pool.execute(task);
+                    window.add(task);
+                }
+                // Выводим результаты отделов в порядке списка департаментов, освобождая память по мере вывода
+                window.poll().join().replay(sink);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Подзадача: все переводы из одного отдела */
+    private static class DepartmentTask extends RecursiveTask<DispositionBuffer> {
+        private static final long serialVersionUID = 1L;
+
+        private final ArrayList<Department> departments;
+        private final TargetIndex index;
+        private final Department dpt;
+        private final int parallelism;
+
+        DepartmentTask(ArrayList<Department> departments, TargetIndex index, Department dpt, int parallelism) {
+            this.departments = departments;
+            this.index = index;
+            this.dpt = dpt;
+            this.parallelism = parallelism;
+        }
+
+        @Override
+        protected DispositionBuffer compute() {
+            DispositionBuffer dispositions = new DispositionBuffer();
+            long lastMask = PermutationIterator.getPermutationCount(dpt.getListOfEmployees().size());
+            AtomicLong stopMask = new AtomicLong(Long.MAX_VALUE); // Общая для всех диапазонов отдела маска останова
+            long generated = 0;
+            // Диапазоны запускаем волнами, чтобы не создавать подзадачи для всего 2^n перебора сразу
+            long first = 1;
+            while (first <= lastMask) {
+                List<RangeTask> wave = new ArrayList<>();
+                for (int i = 0; i < parallelism * 2 && first <= lastMask; i++) {
+                    long last = Math.min(lastMask, first + CHUNK_SIZE - 1);
+                    wave.add(new RangeTask(departments, index, dpt, first, last, stopMask));
+                    first = last + 1;
+                }
+                ForkJoinTask.invokeAll(wave);
+                // Замеряем только слияние: диапазоны, в том числе выполненные в этом потоке, сдают свою память сами
+                long allocated = Metrics.allocatedBytes();
+                for (RangeTask range : wave) {
+                    dispositions.addAll(range.join());
+                    generated += range.generated;
+                    // Перебор отдела остановлен в этом диапазоне - следующие диапазоны отбрасываем
+                    if (range.limitReached) {
+                        first = lastMask + 1;
+                        break;
+                    }
+                }
+                Metrics.addAllocated(Metrics.Stage.DISPOSITIONS, allocated);
+            }
+            Metrics.addGroups(dpt, generated, lastMask - generated);
+            return dispositions;
+        }
+    }
+
+    /** Подзадача: перебор одного диапазона масок одного отдела */
+    private static class RangeTask extends RecursiveTask<DispositionBuffer> {
+        private static final long serialVersionUID = 1L;
+
+        private final ArrayList<Department> departments;
+        private final TargetIndex index;
+        private final Department dpt;
+        private final long firstMask;
+        private final long lastMask;
+        private final AtomicLong stopMask;
+        private boolean limitReached;
+        /** Количество перебранных масок диапазона */
+        private long generated;
+
+        RangeTask(ArrayList<Department> departments, TargetIndex index, Department dpt,
+                  long firstMask, long lastMask, AtomicLong stopMask) {
+            this.departments = departments;
+            this.index = index;
+            this.dpt = dpt;
+            this.firstMask = firstMask;
+            this.lastMask = lastMask;
+            this.stopMask = stopMask;
+        }
+
+        @Override
+        protected DispositionBuffer compute() {
+            DispositionBuffer dispositions = new DispositionBuffer();
+            if (firstMask > stopMask.get()) return dispositions; // Отдел уже остановлен раньше этого диапазона
+            long allocated = Metrics.allocatedBytes();
+            PermutationIterator groups = dpt.permutationIterator(firstMask, lastMask);
+            TargetIndex.Selection targets = index.newSelection();
+            try {
+                while (groups.nextGroup()) {
+                    if ((groups.getMask() & STOP_CHECK_MASK) == 0 && groups.getMask() > stopMask.get()) {
+                        return dispositions; // Результат все равно будет отброшен
+                    }
+                    try {
+                        TransfersTestDrive.addDispositions(departments, dpt, groups, targets, dispositions);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e); // Накопитель в памяти не бросает IOException
+                    }
+                }
+                if (groups.isLimitReached()) {
+                    limitReached = true;
+                    stopMask.accumulateAndGet(groups.getMask(), Math::min);
+                }
+                return dispositions;
+            } finally {
+                generated = groups.getGeneratedCount();
+                Metrics.addAllocated(Metrics.Stage.DISPOSITIONS, allocated);
+            }
+        }
+    }
+
+    /** Накопитель переводов одного отдела: отдел назначения и маска группы на каждый перевод */
+    private static class DispositionBuffer implements DispositionSink {
+        private Department from;
+        private Department[] targets = new Department[16];
+        private long[] masks = new long[16];
+        private int size;
+
+        @Override
+        public void accept(Department from, Department to, long groupMask) {
+            this.from = from;
+            if (size == masks.length) {
+                targets = Arrays.copyOf(targets, size * 2);
+                masks = Arrays.copyOf(masks, size * 2);
+            }
+            targets[size] = to;
+            masks[size] = groupMask;
+            size++;
+        }
+
+        void addAll(DispositionBuffer other) {
+            for (int i = 0; i < other.size; i++) {
+                accept(other.from, other.targets[i], other.masks[i]);
+            }
+        }
+
+        void replay(DispositionSink sink) throws IOException {
+            for (int i = 0; i < size; i++) {
+                sink.accept(from, targets[i], masks[i]);
+            }
+        }
+    }
+}
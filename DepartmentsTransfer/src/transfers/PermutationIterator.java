@@ -0,0 +1,182 @@
+package transfers;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/** Ленивый перебор групп сотрудников одного отдела.
+ * Группы выдаются в порядке возрастания битовой маски (тот же порядок, что давал полный список перестановок),
+ * но в памяти не хранятся: очередная группа строится только по запросу.
+ * Перебор прекращается на первой группе, средняя зарплата которой превышает заданный предел.
+ * Сумма и численность группы хранятся в копейках и пересчитываются при каждом переходе,
+ * поэтому сравнение средней зарплаты группы не требует ни пересчета, ни создания объектов.
+ * @author Виталий Юдин
+ * @version 1.0
+ */
+public class PermutationIterator implements Iterator<ArrayList<Employee>> {
+    /** Максимальное число сотрудников, при котором маска группы помещается в long */
+    static final int MAX_EMPLOYEES = Long.SIZE - 2;
+
+    private final Employee[] employees;
+    private final long[] salaries;
+    private final long limit;
+    /** Первая и последняя маски перебора (включительно) */
+    private final long firstMask;
+    private final long lastMask;
+    /** Маска текущей группы: бит i выставлен, если в группу входит i-й сотрудник */
+    private long mask;
+    /** Сумма зарплат (в копейках) и численность текущей группы */
+    private long sum;
+    private int size;
+    private boolean prepared;
+    private boolean finished;
+    private boolean limitReached;
+
+    /** Создает перебор групп для указанного списка сотрудников
+     * @param employees список сотрудников отдела
+     * @param salaries зарплаты тех же сотрудников в копейках
+     * @param limit предел средней зарплаты группы в копейках; первая группа выше предела останавливает перебор.
+     *              Long.MAX_VALUE - перебираются все группы
+     * @see Department#permutationIterator()
+     */
+    public PermutationIterator(List<Employee> employees, long[] salaries, long limit) {
+        this(employees, salaries, limit, 1, getPermutationCount(employees.size()));
+    }
+
+    /** Создает перебор групп, ограниченный диапазоном масок. Используется для деления перебора между потоками
+     * @param employees список сотрудников отдела
+     * @param salaries зарплаты тех же сотрудников в копейках
+     * @param limit предел средней зарплаты группы в копейках
+     * @param firstMask первая маска диапазона, не меньше 1
+     * @param lastMask последняя маска диапазона (включительно)
+     * @see ParallelDispositions
+     */
+    public PermutationIterator(List<Employee> employees, long[] salaries, long limit, long firstMask, long lastMask) {
+        if (employees.size() > MAX_EMPLOYEES) {
+            throw new IllegalStateException("Слишком много сотрудников для перебора групп: " + employees.size());
+        }
+        this.employees = employees.toArray(new Employee[0]);
+        this.salaries = salaries;
+        this.limit = limit;
+        this.firstMask = firstMask;
+        this.lastMask = lastMask;
+        // Встаем на маску перед первой, считая ее сумму напрямую
+        this.mask = firstMask - 1;
+        for (int i = 0; i < this.employees.length; i++) {
+            if ((mask & (1L << i)) != 0) {
+                sum += salaries[i];
+                size++;
+            }
+        }
+    }
+
+    /** Вычисляет количество непустых групп
+     * @param employeeCount число сотрудников
+     * @return Возвращает количество непустых групп, оно же последняя маска полного перебора
+     */
+    public static long getPermutationCount(int employeeCount) {
+        return (1L << employeeCount) - 1;
+    }
+
+    /** Переходит к следующей группе, не создавая ее список
+     * @return Возвращает false, если группы закончились или средняя ЗП очередной группы выше предела
+     */
+    public boolean nextGroup() {
+        if (!hasNext()) {
+            return false;
+        }
+        prepared = false;
+        return true;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!prepared && !finished) {
+            if (mask == lastMask) {
+                finished = true;
+            } else {
+                advance();
+                // Средняя ЗП группы выше предела - дальше не идем
+                if (getAverageSalaryCents() > limit) {
+                    finished = true;
+                    limitReached = true;
+                } else {
+                    prepared = true;
+                }
+            }
+        }
+        return prepared;
+    }
+
+    @Override
+    public ArrayList<Employee> next() {
+        if (!nextGroup()) {
+            throw new NoSuchElementException();
+        }
+        return getGroup();
+    }
+
+    /** Строит список сотрудников текущей группы
+     * @return Возвращает сотрудников текущей группы в порядке их следования в отделе
+     */
+    public ArrayList<Employee> getGroup() {
+        ArrayList<Employee> group = new ArrayList<>(size);
+        for (int i = 0; i < employees.length; i++) {
+            if ((mask & (1L << i)) != 0) {
+                group.add(employees[i]);
+            }
+        }
+        return group;
+    }
+
+    /** Проверяет, остановлен ли перебор на группе со средней ЗП выше предела.
+     * В этом случае {@link #getMask()} возвращает маску этой группы
+     * @return Возвращает true, если перебор остановлен по пределу, а не исчерпан
+     */
+    public boolean isLimitReached() {
+        return limitReached;
+    }
+
+    /** Считает группы, до которых дошел перебор, включая группу, остановившую его по пределу
+     * @return Возвращает количество перебранных масок
+     * @see Metrics#addGroups(Department, long, long)
+     */
+    public long getGeneratedCount() {
+        return mask - firstMask + 1;
+    }
+
+    public long getMask() {
+        return mask;
+    }
+
+    public int getGroupSize() {
+        return size;
+    }
+
+    public long getGroupSumCents() {
+        return sum;
+    }
+
+    /** Вычисляет среднюю зарплату текущей группы
+     * @return Возвращает среднюю зарплату текущей группы в копейках
+     */
+    public long getAverageSalaryCents() {
+        return Cents.average(sum, size);
+    }
+
+    /** Переходит к следующей маске, поправляя сумму только по изменившимся битам */
+    private void advance() {
+        int i = 0;
+        // Младшие единичные биты сбрасываются - эти сотрудники покидают группу
+        while ((mask & (1L << i)) != 0) {
+            sum -= salaries[i];
+            size--;
+            i++;
+        }
+        // Первый нулевой бит выставляется - сотрудник входит в группу
+        sum += salaries[i];
+        size++;
+        mask++;
+    }
+}
@@ -0,0 +1,181 @@
+package transfers;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/** Класс записывает результат в выходной файл по мере нахождения переводов.
+ * Сначала выводятся текущие составы отделов, затем каждый перевод сразу попадает в буфер записи,
+ * так что в памяти никогда не держится весь список переводов. Формат файла прежний.
+ * Обмены выводятся в том же формате, после всех переводов.
+ * @author Виталий Юдин
+ * @version 1.0
+ */
+public class ReportWriter implements DispositionSink, ExchangeSink, Closeable {
+    /** Размер буфера записи, по заполнении буфер сбрасывается в файл */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final BufferedWriter fileWriter;
+    /** Количество выведенных переводов и обменов */
+    private long dispositionCount;
+    private long exchangeCount;
+
+    /** Открывает выходной файл и выводит в него текущие составы всех отделов
+     * @param departments список всех департаментов
+     * @param outputFileName путь к выходному файлу
+     * @throws IOException При ошибках записи файла
+     */
+    public ReportWriter(ArrayList<Department> departments, String outputFileName) throws IOException {
+        long started = Metrics.nanoTime();
+        long allocated = Metrics.allocatedBytes();
+        fileWriter = new BufferedWriter(new FileWriter(outputFileName), BUFFER_SIZE);
+        try {
+            // Проходимся по списку отделов и выводим среднюю зарплату в каждом
+            for (Department dpt : departments) {
+                fileWriter.newLine();
+                fileWriter.write("Отдел " + dpt.getName().toUpperCase());
+                fileWriter.newLine();
+                for (String s : dpt.printAllEmployees()) {
+                    fileWriter.write(s);
+                    fileWriter.newLine();
+                }
+                fileWriter.newLine();
+            }
+            Metrics.addStage(Metrics.Stage.REPORT, started, allocated);
+        } catch (IOException e) {
+            fileWriter.close();
+            throw e;
+        }
+    }
+
+    /** Выводит перевод: заголовок и новые составы обоих отделов.
+     * Новые составы не строятся: строки берутся из уже отформатированных строк исходных отделов,
+     * а средние зарплаты считаются по суммам в копейках
+     * @param from отдел, ИЗ которого переводим
+     * @param to отдел, КУДА переводим
+     * @param groupMask маска переводимой группы
+     * @throws IOException При ошибках записи файла
+     */
+    @Override
+    public void accept(Department from, Department to, long groupMask) throws IOException {
+        long started = Metrics.nanoTime();
+        long allocated = Metrics.allocatedBytes();
+        if (dispositionCount++ == 0) {
+            fileWriter.newLine();
+            fileWriter.write("Чтобы увеличить средние ЗП, возможны следующие варианты переводов: \r\n");
+            fileWriter.newLine();
+        }
+        writeLine("==================================================================");
+        writeTransferTitle(from, to, groupMask);
+
+        // Новый состав отдела, КУДА переводим: все его сотрудники и вся группа
+        writeComposition(to, 0, from, groupMask);
+        // Новый состав отдела, ОТКУДА переводим: все, кроме группы
+        writeComposition(from, groupMask, to, 0);
+        writeLine("\r\n");
+        Metrics.addStage(Metrics.Stage.WRITE, started, allocated);
+    }
+
+    /** Выводит обмен: заголовки обоих переводов и новые составы обоих отделов, в том же формате, что и перевод
+     * @param first первый отдел обмена
+     * @param firstMask маска группы, уходящей из первого отдела
+     * @param second второй отдел обмена
+     * @param secondMask маска группы, уходящей из второго отдела
+     * @throws IOException При ошибках записи файла
+     * @see ExchangeSearch
+     */
+    @Override
+    public void acceptExchange(Department first, long firstMask, Department second, long secondMask) throws IOException {
+        long started = Metrics.nanoTime();
+        long allocated = Metrics.allocatedBytes();
+        if (exchangeCount++ == 0) {
+            fileWriter.newLine();
+            fileWriter.write("Чтобы увеличить средние ЗП, возможны следующие варианты обменов: \r\n");
+            fileWriter.newLine();
+        }
+        writeLine("==================================================================");
+        writeTransferTitle(first, second, firstMask);
+        writeTransferTitle(second, first, secondMask);
+
+        // Новые составы: каждый отдел без своей группы и с группой другого отдела
+        writeComposition(second, secondMask, first, firstMask);
+        writeComposition(first, firstMask, second, secondMask);
+        writeLine("\r\n");
+        Metrics.addStage(Metrics.Stage.WRITE, started, allocated);
+    }
+
+    /** Выводит заголовок перевода группы с ФИО ее сотрудников */
+    private void writeTransferTitle(Department from, Department to, long groupMask) throws IOException {
+        ArrayList<Employee> fromEmployees = from.getListOfEmployees();
+        StringBuilder groupNames = new StringBuilder("[");
+        for (long rest = groupMask; rest != 0; rest &= rest - 1) {
+            if (groupNames.length() > 1) {
+                groupNames.append(", ");
+            }
+            groupNames.append(fromEmployees.get(Long.numberOfTrailingZeros(rest)));
+        }
+        groupNames.append(']');
+        writeLine("Сотрудники " + groupNames.toString().toUpperCase() +
+                " из <" + from.getName() +
+                "> в ----->  <" + to.getName() + ">");
+    }
+
+    /** Выводит новый состав отдела: его сотрудники без уходящей группы, затем пришедшая группа другого отдела
+     * @param dpt отдел, состав которого выводим
+     * @param leavingMask маска группы, уходящей из отдела
+     * @param other отдел, из которого приходит группа
+     * @param joiningMask маска группы, приходящей из другого отдела
+     * @throws IOException При ошибках записи файла
+     */
+    private void writeComposition(Department dpt, long leavingMask, Department other, long joiningMask) throws IOException {
+        writeLine(Department.TABLE_HEADER);
+        writeLine(Department.TABLE_LINE);
+        int size = dpt.getListOfEmployees().size();
+        for (int i = 0; i < size; i++) {
+            if ((leavingMask & (1L << i)) == 0) {
+                writeLine(dpt.getEmployeeRow(i, dpt));
+            }
+        }
+        for (long rest = joiningMask; rest != 0; rest &= rest - 1) {
+            writeLine(other.getEmployeeRow(Long.numberOfTrailingZeros(rest), dpt));
+        }
+        // Сумма и численность групп - только по выставленным битам масок
+        long sum = dpt.getSalarySumCents() - getGroupSum(dpt, leavingMask) + getGroupSum(other, joiningMask);
+        size += Long.bitCount(joiningMask) - Long.bitCount(leavingMask);
+        writeLine(Department.formatAverageSalary(Cents.average(sum, size)));
+        writeLine(Department.TABLE_FOOTER);
+    }
+
+    private static long getGroupSum(Department dpt, long groupMask) {
+        long[] salaries = dpt.getSalaryCents();
+        long sum = 0;
+        for (long rest = groupMask; rest != 0; rest &= rest - 1) {
+            sum += salaries[Long.numberOfTrailingZeros(rest)];
+        }
+        return sum;
+    }
+
+    public long getDispositionCount() {
+        return dispositionCount;
+    }
+
+    public long getExchangeCount() {
+        return exchangeCount;
+    }
+
+    /** Дописывает остаток буфера и закрывает файл */
+    @Override
+    public void close() throws IOException {
+        long started = Metrics.nanoTime();
+        long allocated = Metrics.allocatedBytes();
+        fileWriter.close();
+        Metrics.addStage(Metrics.Stage.REPORT, started, allocated);
+    }
+
+    private void writeLine(String line) throws IOException {
+        fileWriter.write(line);
+        fileWriter.write("\r\n");
+    }
+}
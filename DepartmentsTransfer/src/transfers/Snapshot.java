@@ -0,0 +1,232 @@
+package transfers;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/** Двоичный снимок разобранной орг.структуры для повторных запусков на том же файле.
+ * Снимок лежит рядом с исходным файлом ({@code <входной файл>.snap}) и хранит данные по столбцам:
+ * таблицу имен (названия отделов и ФИО, каждое один раз), затем для отделов - номер имени и численность,
+ * для сотрудников - номер имени и зарплату в копейках. Зарплата в отчете всегда выводится с двумя знаками,
+ * поэтому копеек достаточно.
+ * Снимок действителен, пока у исходного файла те же размер, время изменения и контрольная сумма (CRC32C).
+ * Снимок читается через отображение в память, без декодирования windows-1251 и разбора строк и BigDecimal.
+ * @author Виталий Юдин
+ * @version 1.0
+ * @see TransfersTestDrive#readFile(String)
+ */
+public class Snapshot {
+    /** Сигнатура файла снимка ("DTSN") и версия формата */
+    private static final int MAGIC = 0x4454534E;
+    private static final int VERSION = 1;
+    /** Размер заголовка: сигнатура, версия, размер, время изменения и контрольная сумма исходного файла */
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 8;
+    /** Наибольший кусок исходного файла, отображаемый за раз при подсчете контрольной суммы */
+    private static final long MAX_MAP_SIZE = 1L << 30;
+
+    private final Path inputFile;
+    private final Path snapshotFile;
+    /** Ключ исходного файла на момент создания объекта */
+    private final long inputSize;
+    private final long inputModified;
+    private final long inputChecksum;
+
+    /** Снимает ключ исходного файла: размер, время изменения и контрольную сумму.
+     * Ключ снимается до разбора файла, поэтому снимок, сохраненный после разбора, не примет изменения,
+     * сделанные во время разбора
+     * @param inputFileName путь к исходному файлу
+     * @throws IOException При ошибках чтения исходного файла
+     */
+    public Snapshot(String inputFileName) throws IOException {
+        inputFile = Paths.get(inputFileName);
+        snapshotFile = Paths.get(inputFileName + ".snap");
+        inputSize = Files.size(inputFile);
+        inputModified = Files.getLastModifiedTime(inputFile).toMillis();
+        inputChecksum = checksum(inputFile, inputSize);
+    }
+
+    /** Загружает орг.структуру из снимка, если он есть и соответствует исходному файлу
+     * @return Возвращает список департаментов или null, если снимка нет, он устарел или поврежден
+     * @throws IOException При ошибках чтения снимка
+     */
+    public ArrayList<Department> load() throws IOException {
+        MappedByteBuffer data;
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE + 4 || channel.size() > Integer.MAX_VALUE) return null;
+            // Заголовок читаем без отображения: отображение устаревшего снимка живет до сборки мусора
+            // и на Windows не дает заменить снимок новым при сохранении
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) return null;
+            }
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION
+                    || header.getLong() != inputSize || header.getLong() != inputModified || header.getLong() != inputChecksum) {
+                return null; // Чужой или устаревший снимок
+            }
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        // Контрольная сумма данных - в последних 4 байтах
+        int checksumPosition = data.limit() - 4;
+        CRC32C crc = new CRC32C();
+        crc.update(data.duplicate().position(HEADER_SIZE).limit(checksumPosition));
+        if ((int) crc.getValue() != data.getInt(checksumPosition)) return null;
+        try {
+            return readDepartments(data.position(HEADER_SIZE).limit(checksumPosition));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /** Сохраняет орг.структуру в снимок. Снимок пишется во временный файл и затем заменяет прежний,
+     * так что параллельный запуск никогда не увидит недописанный снимок
+     * @param departments список всех департаментов, разобранный из исходного файла
+     * @throws IOException При ошибках записи снимка
+     */
+    public void save(ArrayList<Department> departments) throws IOException {
+        // Таблица имен: каждое название и ФИО один раз
+        HashMap<String, Integer> nameIndex = new HashMap<>();
+        ArrayList<String> names = new ArrayList<>();
+        int employeeCount = 0;
+        for (Department dpt : departments) {
+            intern(dpt.getName(), nameIndex, names);
+            for (Employee employee : dpt.getListOfEmployees()) {
+                intern(employee.getName(), nameIndex, names);
+                employeeCount++;
+            }
+        }
+
+        // Временный файл создается с обычными правами (как и сам снимок), а не 0600, как у createTempFile:
+        // иначе снимок, сохраненный одним пользователем, не смогут прочитать другие
+        Path temporary = snapshotFile.resolveSibling(snapshotFile.getFileName() + "."
+                + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                DataOutputStream header = new DataOutputStream(file);
+                header.writeInt(MAGIC);
+                header.writeInt(VERSION);
+                header.writeLong(inputSize);
+                header.writeLong(inputModified);
+                header.writeLong(inputChecksum);
+                header.flush();
+
+                CRC32C crc = new CRC32C();
+                DataOutputStream body = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc), 1 << 16));
+                body.writeInt(names.size());
+                for (String name : names) {
+                    byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                    body.writeInt(bytes.length);
+                    body.write(bytes);
+                }
+                // Столбцы отделов
+                body.writeInt(departments.size());
+                for (Department dpt : departments) {
+                    body.writeInt(nameIndex.get(dpt.getName()));
+                }
+                for (Department dpt : departments) {
+                    body.writeInt(dpt.getListOfEmployees().size());
+                }
+                // Столбцы сотрудников, подряд по отделам
+                body.writeInt(employeeCount);
+                for (Department dpt : departments) {
+                    for (Employee employee : dpt.getListOfEmployees()) {
+                        body.writeInt(nameIndex.get(employee.getName()));
+                    }
+                }
+                for (Department dpt : departments) {
+                    for (long salary : dpt.getSalaryCents()) {
+                        body.writeLong(salary);
+                    }
+                }
+                body.flush();
+                header.writeInt((int) crc.getValue());
+                header.flush();
+            }
+            try {
+                Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /** Восстанавливает департаменты из данных снимка, стоящих на начале таблицы имен */
+    private static ArrayList<Department> readDepartments(ByteBuffer data) {
+        String[] names = new String[data.getInt()];
+        byte[] bytes = new byte[64];
+        for (int i = 0; i < names.length; i++) {
+            int length = data.getInt();
+            if (length > bytes.length) bytes = new byte[Math.max(length, bytes.length * 2)];
+            data.get(bytes, 0, length);
+            names[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        int departmentCount = data.getInt();
+        ArrayList<Department> departments = new ArrayList<>(departmentCount);
+        for (int i = 0; i < departmentCount; i++) {
+            departments.add(new Department(names[data.getInt()]));
+        }
+        int[] sizes = new int[departmentCount];
+        for (int i = 0; i < departmentCount; i++) {
+            sizes[i] = data.getInt();
+        }
+
+        int employeeCount = data.getInt();
+        int[] employeeNames = new int[employeeCount];
+        for (int i = 0; i < employeeCount; i++) {
+            employeeNames[i] = data.getInt();
+        }
+        int employee = 0;
+        for (int i = 0; i < departmentCount; i++) {
+            Department dpt = departments.get(i);
+            for (int j = 0; j < sizes[i]; j++, employee++) {
+                dpt.addToEmployeeList(new Employee(names[employeeNames[employee]], BigDecimal.valueOf(data.getLong(), 2)));
+            }
+        }
+        if (employee != employeeCount || data.hasRemaining()) {
+            throw new IllegalArgumentException("Неверная структура снимка");
+        }
+        return departments;
+    }
+
+    private static void intern(String name, HashMap<String, Integer> nameIndex, ArrayList<String> names) {
+        if (!nameIndex.containsKey(name)) {
+            nameIndex.put(name, names.size());
+            names.add(name);
+        }
+    }
+
+    /** Считает контрольную сумму файла, отображая его в память кусками */
+    private static long checksum(Path file, long size) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (long position = 0; position < size; position += MAX_MAP_SIZE) {
+                crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAX_MAP_SIZE, size - position)));
+            }
+        }
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,132 @@
+package transfers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/** Сохраненные группы одного отдела-источника: маски и средние ЗП групп в порядке перебора
+ * (до первой группы выше средней отдела), а также те же средние по возрастанию для подсчета групп
+ * выше заданной средней. Группы зависят только от последовательности зарплат отдела, поэтому
+ * одни и те же группы подходят любому отделу с такими же зарплатами в том же порядке.
+ * После построения не меняется и может использоваться из разных потоков.
+ * Хранятся группы только отделов до {@link #MAX_GROUPS} групп полного перебора, группы более крупных
+ * отделов перебираются на ходу статическими методами этого класса.
+ * @author Виталий Юдин
+ * @version 1.0
+ * @see OrgModel
+ * @see GroupCache
+ */
+public class SourceGroups {
+    /** Наибольший полный перебор отдела, группы которого можно хранить (до 20 сотрудников): по 3 числа long на группу */
+    static final long MAX_GROUPS = (1L << 20) - 1;
+
+    private long[] masks = new long[0];
+    private long[] averages = new long[0];
+    private long[] sortedAverages = new long[0];
+    private int count;
+
+    /** Перебирает группы отдела до первой группы выше средней отдела
+     * @param dpt отдел-источник
+     */
+    public SourceGroups(Department dpt) {
+        if (dpt.getListOfEmployees().size() <= 1) return; // Переводить можно, только если в отделе останется хотя бы 1 сотрудник
+        PermutationIterator groups = dpt.permutationIterator();
+        while (groups.nextGroup()) {
+            if (count == masks.length) {
+                int capacity = Math.max(16, count * 2);
+                masks = Arrays.copyOf(masks, capacity);
+                averages = Arrays.copyOf(averages, capacity);
+            }
+            masks[count] = groups.getMask();
+            averages[count] = groups.getAverageSalaryCents();
+            count++;
+        }
+        masks = Arrays.copyOf(masks, count);
+        averages = Arrays.copyOf(averages, count);
+        sortedAverages = averages.clone();
+        Arrays.sort(sortedAverages);
+    }
+
+    /** Проверяет, можно ли хранить группы отдела: число групп полного перебора растет как 2^n,
+     * а ранняя остановка может наступить поздно, например если руководитель с высокой зарплатой стоит в конце списка
+     * @param dpt отдел-источник
+     * @return Возвращает false, если группы отдела нужно перебирать на ходу
+     */
+    public static boolean isStorable(Department dpt) {
+        int size = dpt.getListOfEmployees().size();
+        return size < Long.SIZE && PermutationIterator.getPermutationCount(size) <= MAX_GROUPS;
+    }
+
+    /** Передает получателю переводы отдела, как {@link #addDispositions}, но перебирая группы на ходу, без хранения
+     * @param departments список всех департаментов
+     * @param from отдел, ИЗ которого переводим
+     * @param targets выборка отделов из индекса по средней ЗП
+     * @param sink получатель переводов
+     * @throws IOException При ошибках вывода переводов
+     */
+    public static void streamDispositions(ArrayList<Department> departments, Department from,
+                                          TargetIndex.Selection targets, DispositionSink sink) throws IOException {
+        if (from.getListOfEmployees().size() <= 1) return;
+        PermutationIterator groups = from.permutationIterator();
+        while (groups.nextGroup()) {
+            TransfersTestDrive.addDispositions(departments, from, groups, targets, sink);
+        }
+    }
+
+    /** Считает группы отдела со средней ЗП строго выше заданной, как {@link #countAbove(long)},
+     * но перебирая группы на ходу, без хранения
+     * @param dpt отдел-источник
+     * @param salary средняя ЗП в копейках
+     * @return Возвращает количество таких групп
+     */
+    public static long countAbove(Department dpt, long salary) {
+        if (dpt.getListOfEmployees().size() <= 1) return 0;
+        long count = 0;
+        PermutationIterator groups = dpt.permutationIterator();
+        while (groups.nextGroup()) {
+            if (groups.getAverageSalaryCents() > salary) count++;
+        }
+        return count;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /** Считает группы, средняя ЗП которых строго выше заданной
+     * @param salary средняя ЗП в копейках
+     * @return Возвращает количество таких групп
+     */
+    public int countAbove(long salary) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedAverages[middle] <= salary) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return count - low;
+    }
+
+    /** Передает получателю переводы всех групп во все подходящие отделы, в порядке полного перебора
+     * @param departments список всех департаментов
+     * @param from отдел, ИЗ которого переводим: этот или любой с теми же зарплатами в том же порядке
+     * @param targets выборка отделов из индекса по средней ЗП
+     * @param sink получатель переводов
+     * @throws IOException При ошибках вывода переводов
+     * @see TransfersTestDrive#addDispositions(ArrayList, Department, PermutationIterator, TargetIndex.Selection, DispositionSink)
+     */
+    public void addDispositions(ArrayList<Department> departments, Department from,
+                                TargetIndex.Selection targets, DispositionSink sink) throws IOException {
+        for (int g = 0; g < count; g++) {
+            int selected = targets.select(averages[g]);
+            int[] indices = targets.getTargets();
+            for (int i = 0; i < selected; i++) {
+                sink.accept(from, departments.get(indices[i]), masks[g]);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package transfers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/** Индекс отделов по средней зарплате для быстрого поиска отделов, куда можно перевести группу.
+ * Средние ЗП считаются один раз и хранятся отсортированными, поэтому все отделы со средней ниже
+ * средней группы находятся одним двоичным поиском как начало отсортированного массива.
+ * Индекс строится один раз и используется для всех отделов-источников, в том числе из разных потоков.
+ * @author Виталий Юдин
+ * @version 1.0
+ */
+public class TargetIndex {
+    /** Средние ЗП отделов в копейках в порядке списка департаментов */
+    private final long[] averages;
+    /** Номера отделов по возрастанию средней ЗП и сами средние в том же порядке */
+    private final int[] byAverage;
+    private final long[] sortedAverages;
+    /** Место отдела в порядке возрастания средней ЗП, по номеру отдела */
+    private final int[] rank;
+
+    /** Строит индекс по текущим средним ЗП отделов
+     * @param departments список всех департаментов
+     * @see TransfersTestDrive#getAverageSalaries(ArrayList)
+     */
+    public TargetIndex(ArrayList<Department> departments) {
+        averages = TransfersTestDrive.getAverageSalaries(departments);
+        Integer[] order = new Integer[averages.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingLong(i -> averages[i]));
+        byAverage = new int[order.length];
+        sortedAverages = new long[order.length];
+        rank = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            byAverage[i] = order[i];
+            sortedAverages[i] = averages[order[i]];
+            rank[order[i]] = i;
+        }
+    }
+
+    /** Возвращает среднюю ЗП отдела
+     * @param department номер отдела в списке департаментов
+     * @return Возвращает среднюю ЗП отдела в копейках
+     */
+    public long getAverage(int department) {
+        return averages[department];
+    }
+
+    /** Считает отделы, средняя ЗП которых строго ниже заданной
+     * @param salary средняя ЗП в копейках
+     * @return Возвращает количество таких отделов, они идут первыми в порядке возрастания средней
+     */
+    public int countBelow(long salary) {
+        int low = 0;
+        int high = sortedAverages.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedAverages[middle] < salary) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /** Создает выборку для одного потока перебора
+     * @return Возвращает новую выборку
+     */
+    public Selection newSelection() {
+        return new Selection();
+    }
+
+    /** Выборка отделов-целей для очередной группы. Не потокобезопасна: у каждого потока своя.
+     * Отделы выдаются в порядке списка департаментов, как и при обходе всего списка.
+     * Выборка не строится заново, а правится на разницу с предыдущей группой: новые отделы
+     * сортируются и вливаются в выборку, лишние отфильтровываются. Правка стоит O(выбранных + d log d),
+     * где d - число добавленных отделов, то есть не больше прохода по самим выбранным отделам
+     */
+    public class Selection {
+        private final int[] targets = new int[byAverage.length];
+        /** Добавляемые отделы, перед слиянием с выборкой */
+        private final int[] added = new int[byAverage.length];
+        private int count;
+
+        /** Выбирает все отделы, средняя ЗП которых ниже средней группы
+         * @param groupAverage средняя ЗП группы в копейках
+         * @return Возвращает количество выбранных отделов, см. {@link #getTargets()}
+         */
+        public int select(long groupAverage) {
+            int below = countBelow(groupAverage);
+            if (below > count) {
+                // Добавляются отделы со следующими по возрастанию средними: сортируем их и сливаем с конца
+                int addedCount = below - count;
+                System.arraycopy(byAverage, count, added, 0, addedCount);
+                Arrays.sort(added, 0, addedCount);
+                int i = count - 1;
+                int j = addedCount - 1;
+                for (int k = below - 1; j >= 0; k--) {
+                    targets[k] = i >= 0 && targets[i] > added[j] ? targets[i--] : added[j--];
+                }
+            } else if (below < count) {
+                // Убираются отделы с самыми высокими средними, порядок остальных сохраняется
+                int kept = 0;
+                for (int i = 0; i < count; i++) {
+                    if (rank[targets[i]] < below) targets[kept++] = targets[i];
+                }
+            }
+            count = below;
+            return count;
+        }
+
+        /** Возвращает номера выбранных отделов; значимы первые {@link #select(long)} элементов
+         * @return Возвращает номера отделов в списке департаментов
+         */
+        public int[] getTargets() {
+            return targets;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package transfers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/** Класс для поиска лучших переводов вместо полного перечисления.
+ * Перевод группы G из отдела S в отдел T допустим, если после него растут средние ЗП обоих отделов.
+ * Оценка перевода - суммарный прирост средних ЗП (в копейках, по округленным средним, как в отчете).
+ * Хранятся только K лучших переводов (куча ограниченного размера).
+ * Группы перебираются поиском в глубину по сотрудникам, отсортированным по зарплате: у каждой ветки
+ * оценивается верхняя граница оценки всех ее продолжений, и ветка отсекается, если эта граница
+ * не может превзойти текущий K-й результат или ни одно продолжение не может быть допустимым.
+ * @author Виталий Юдин
+ * @version 1.0
+ */
+public class TopTransfers {
+    /** Запас на округление: каждая из четырех средних в оценке округлена не более чем на полкопейки */
+    private static final double ROUNDING_SLACK = 2.5;
+
+    /** Худший из найденных переводов - на вершине кучи. При равной оценке лучше тот, что раньше в полном списке */
+    private static final Comparator<Candidate> WORST_FIRST = Comparator
+            .comparingLong((Candidate c) -> c.score)
+            .thenComparing(Comparator.comparingInt((Candidate c) -> c.source)
+                    .thenComparingLong(c -> c.mask)
+                    .thenComparingInt(c -> c.target)
+                    .reversed());
+
+    private final ArrayList<Department> departments;
+    private final int limit;
+    private final PriorityQueue<Candidate> heap;
+    private final TargetIndex index;
+
+    // Состояние перебора текущего отдела-источника
+    private int source;
+    private long sourceSum;
+    private int sourceSize;
+    private double sourceAverage;
+    /** Номера сотрудников в порядке возрастания зарплаты, их зарплаты и префиксные суммы */
+    private int[] order;
+    private long[] sorted;
+    private long[] prefix;
+    /** Отделы, куда из текущего источника в принципе возможен перевод: их средняя ЗП ниже */
+    private int[] targets;
+    private int targetCount;
+    /** Оцененные и отсеченные без оценки группы текущего источника, для метрик */
+    private long generated;
+    private long pruned;
+
+    private TopTransfers(ArrayList<Department> departments, int limit) {
+        this.departments = departments;
+        this.limit = limit;
+        this.heap = new PriorityQueue<>(limit + 1, WORST_FIRST);
+        this.index = new TargetIndex(departments);
+    }
+
+    /** Находит K лучших переводов и передает их получателю, начиная с лучшего
+     * @param departments список всех департаментов
+     * @param limit сколько лучших переводов нужно (K)
+     * @param sink получатель переводов
+     * @throws IOException При ошибках вывода переводов
+     * @see TransfersTestDrive#makeDispositions(ArrayList, DispositionSink)
+     */
+    static void findTopDispositions(ArrayList<Department> departments, int limit, DispositionSink sink) throws IOException {
+        TopTransfers search = new TopTransfers(departments, limit);
+        for (int i = 0; i < departments.size(); i++) {
+            search.searchFrom(i);
+        }
+        Candidate[] best = search.heap.toArray(new Candidate[0]);
+        Arrays.sort(best, WORST_FIRST.reversed());
+        for (Candidate c : best) {
+            sink.accept(departments.get(c.source), departments.get(c.target), c.mask);
+        }
+    }
+
+    /** Перебирает группы одного отдела-источника */
+    private void searchFrom(int sourceIndex) {
+        Department dpt = departments.get(sourceIndex);
+        int n = dpt.getListOfEmployees().size();
+        if (n <= 1) return; // В отделе должен остаться хотя бы 1 сотрудник
+        if (n > PermutationIterator.MAX_EMPLOYEES) {
+            throw new IllegalStateException("Слишком много сотрудников для перебора групп: " + n);
+        }
+        source = sourceIndex;
+        sourceSum = dpt.getSalarySumCents();
+        sourceSize = n;
+        sourceAverage = (double) sourceSum / n;
+
+        // Цели - отделы со средней ЗП не выше средней источника, их дает индекс
+        TargetIndex.Selection selection = index.newSelection();
+        int count = selection.select(index.getAverage(source) + 1);
+        int[] selected = selection.getTargets();
+        targets = new int[count];
+        targetCount = 0;
+        for (int i = 0; i < count; i++) {
+            int t = selected[i];
+            if (t != source && !departments.get(t).getListOfEmployees().isEmpty()) {
+                targets[targetCount++] = t;
+            }
+        }
+        if (targetCount == 0) return;
+
+        // Сортируем сотрудников по зарплате: продолжения ветки добавляют только более высокие зарплаты
+        long[] salaries = dpt.getSalaryCents();
+        Integer[] boxed = new Integer[n];
+        for (int i = 0; i < n; i++) boxed[i] = i;
+        Arrays.sort(boxed, Comparator.comparingLong(i -> salaries[i]));
+        order = new int[n];
+        sorted = new long[n];
+        prefix = new long[n + 1];
+        for (int i = 0; i < n; i++) {
+            order[i] = boxed[i];
+            sorted[i] = salaries[order[i]];
+            prefix[i + 1] = prefix[i] + sorted[i];
+        }
+        generated = 0;
+        pruned = 0;
+        search(-1, 0, 0, 0L);
+        Metrics.addGroups(dpt, generated, pruned);
+    }
+
+    /** Поиск в глубину: группа из count сотрудников с суммой sum, последний добавленный - last в порядке сортировки */
+    private void search(int last, long sum, int count, long mask) {
+        for (int j = last + 1; j < sourceSize; j++) {
+            long childSum = sum + sorted[j];
+            int childCount = count + 1;
+            long childMask = mask | (1L << order[j]);
+            if (childCount >= sourceSize) return; // Весь отдел переводить нельзя
+            evaluate(childSum, childCount, childMask);
+            generated++;
+            double bound = upperBound(j, childSum, childCount);
+            if (bound == Double.NEGATIVE_INFINITY // Ни одно продолжение не будет допустимым
+                    || (heap.size() == limit && bound + ROUNDING_SLACK < heap.peek().score)) { // Не превзойти K-й результат
+                pruned += (1L << (sourceSize - 1 - j)) - 1; // Все продолжения ветки
+                continue;
+            }
+            search(j, childSum, childCount, childMask);
+        }
+    }
+
+    /** Оценивает перевод группы во все подходящие отделы и кладет допустимые переводы в кучу */
+    private void evaluate(long groupSum, int groupSize, long mask) {
+        long sourceGain = Cents.average(sourceSum - groupSum, sourceSize - groupSize) - index.getAverage(source);
+        if (sourceGain <= 0) return;
+        for (int i = 0; i < targetCount; i++) {
+            int t = targets[i];
+            Department target = departments.get(t);
+            long targetGain = Cents.average(target.getSalarySumCents() + groupSum,
+                    target.getListOfEmployees().size() + groupSize) - index.getAverage(t);
+            if (targetGain <= 0) continue;
+            offer(new Candidate(sourceGain + targetGain, source, t, mask));
+        }
+    }
+
+    private void offer(Candidate candidate) {
+        if (heap.size() < limit) {
+            heap.add(candidate);
+        } else if (WORST_FIRST.compare(candidate, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(candidate);
+        }
+    }
+
+    /** Верхняя граница точной (без округления) оценки всех продолжений группы.
+     * Продолжение добавляет m сотрудников с позиций после last, поэтому его сумма лежит между суммой
+     * m самых дешевых и m самых дорогих из оставшихся. Для допустимого перевода средняя ЗП группы
+     * должна быть ниже средней источника и выше средней цели - это еще сужает диапазон суммы.
+     * При фиксированном размере оценка линейна по сумме, так что максимум достигается на краю диапазона
+     * @return Возвращает границу в копейках или NEGATIVE_INFINITY, если допустимых продолжений нет
+     */
+    private double upperBound(int last, long groupSum, int groupSize) {
+        double best = Double.NEGATIVE_INFINITY;
+        int remaining = sourceSize - 1 - last;
+        for (int m = 1; m <= remaining && groupSize + m < sourceSize; m++) {
+            int size = groupSize + m;
+            double minSum = groupSum + prefix[last + 1 + m] - prefix[last + 1];
+            double maxSum = groupSum + prefix[sourceSize] - prefix[sourceSize - m];
+            double hi = Math.min(maxSum, size * sourceAverage);
+            if (minSum > hi) continue;
+            for (int i = 0; i < targetCount; i++) {
+                Department target = departments.get(targets[i]);
+                int targetSize = target.getListOfEmployees().size();
+                long targetSum = target.getSalarySumCents();
+                double targetAverage = (double) targetSum / targetSize;
+                double lo = Math.max(minSum, size * targetAverage);
+                if (lo > hi) continue;
+                best = Math.max(best, Math.max(
+                        exactScore(lo, size, targetSum, targetSize, targetAverage),
+                        exactScore(hi, size, targetSum, targetSize, targetAverage)));
+            }
+        }
+        return best;
+    }
+
+    private double exactScore(double groupSum, int groupSize, long targetSum, int targetSize, double targetAverage) {
+        return (sourceSum - groupSum) / (sourceSize - groupSize) - sourceAverage
+                + (targetSum + groupSum) / (targetSize + groupSize) - targetAverage;
+    }
+
+    /** Найденный перевод: оценка, номера отделов и маска группы */
+    private static class Candidate {
+        private final long score;
+        private final int source;
+        private final int target;
+        private final long mask;
+
+        Candidate(long score, int source, int target, long mask) {
+            this.score = score;
+            this.source = source;
+            this.target = target;
+            this.mask = mask;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package transfers;
+
+import java.io.*;
+import java.util.ArrayList;
+
+/** Класс для решения задачи о возможных переводах сотрудников
+ * @author Виталий Юдин
+ * @version 1.0
+ */
+public class TransfersTestDrive {
+    public static void main(String[] args) {
+        // Проверяем аргументы
+        Options options = Options.parse(args);
+        if (options == null) {
+            System.out.println("Введите корректные пути имен файлов");
+            System.out.println("Использование: TransfersTestDrive <входной файл> <выходной файл> [-p <число потоков>] [--mmap] [--top <K>] [--exchange] [--exchange-limit <N>] [--metrics] [--snapshot]");
+            System.out.println("Обмены (--exchange) ищутся только между отделами не больше " + ExchangeSearch.MAX_EMPLOYEES + " сотрудников"
+                    + ", по умолчанию выводится не больше " + ExchangeSearch.DEFAULT_LIMIT + " обменов (--exchange-limit <N>)");
+        } else {
+            String inputFileName = options.getInputFileName();
+            String outputFileName = options.getOutputFileName();
+
+            try {
+                if (options.isMetrics()) {
+                    Metrics.enable();
+                }
+                // Создаем нашу орг.структуру посредством чтения файла
+                long started = Metrics.nanoTime();
+                long allocated = Metrics.allocatedBytes();
+                Snapshot snapshot = options.isSnapshot() ? new Snapshot(inputFileName) : null;
+                ArrayList<Department> departments = snapshot != null ? loadSnapshot(snapshot) : null;
+                if (departments == null) { // Действующего снимка нет - разбираем файл
+                    departments = options.isMappedInput()
+                            ? MappedFileReader.readFile(inputFileName, options.getParallelism())
+                            : readFile(inputFileName);
+                    if (snapshot != null) {
+                        saveSnapshot(snapshot, departments);
+                    }
+                }
+                Metrics.addStage(Metrics.Stage.READ, started, allocated);
+                // Вычисляем возможные переводы в отделах, сразу выводя их в файл
+                writeResultToFile(departments, outputFileName, options);
+                Metrics.writeJson(outputFileName, departments);
+            } catch (IOException ioEx) {
+                System.out.println("Ошибка во время чтения / записи файла.");
+            } catch (NumberFormatException nfEx) {
+                System.out.println("Ошибка с представлением зарплаты.");
+            } catch (IllegalStateException isEx) { // Отдел слишком велик для перебора групп
+                System.out.println(isEx.getMessage());
+            }
+        }
+    }
+
+    /** Вычисляет возможные переводы и записывает их в выходной файл по мере нахождения
+     * @param departments список всех департаментов
+     * @param outputFileName путь к выходному файлу
+     * @param options параметры запуска: число потоков, режим лучших K переводов, поиск обменов
+     * @throws IOException При ошибках записи готового файла
+     * @see ReportWriter
+     * @see ParallelDispositions
+     * @see TopTransfers
+     * @see ExchangeSearch
+     * @see Metrics
+     */
+    static void writeResultToFile(ArrayList<Department> departments, String outputFileName, Options options) throws IOException {
+        long dispositionCount;
+        try (ReportWriter report = new ReportWriter(departments, outputFileName)) {
+            long started = Metrics.nanoTime();
+            long allocated = Metrics.allocatedBytes();
+            if (options.getTopCount() > 0) {
+                TopTransfers.findTopDispositions(departments, options.getTopCount(), report);
+            } else if (options.getParallelism() > 1) {
+                ParallelDispositions.makeDispositions(departments, options.getParallelism(), report);
+            } else {
+                makeDispositions(departments, report);
+            }
+            Metrics.addStage(Metrics.Stage.DISPOSITIONS, started, allocated);
+            Metrics.addDispositions(report.getDispositionCount());
+            if (options.isExchangeSearch()) {
+                started = Metrics.nanoTime();
+                allocated = Metrics.allocatedBytes();
+                boolean complete = ExchangeSearch.findExchanges(departments, options.getExchangeLimit(), report);
+                Metrics.addStage(Metrics.Stage.EXCHANGES, started, allocated);
+                Metrics.addExchanges(report.getExchangeCount());
+                if (report.getExchangeCount() == 0) {
+                    System.out.println("Допустимые обмены отсутствуют.");
+                } else if (!complete) {
+                    System.out.println("Выведено обменов: " + report.getExchangeCount()
+                            + ", остальные не выводятся (предел --exchange-limit).");
+                }
+            }
+            dispositionCount = report.getDispositionCount();
+        }
+        if (dispositionCount == 0) {
+            System.out.println("Допустимые перестановки отсутствуют.");
+        }
+        System.out.println("Готово. Проверьте файл с результатом");
+    }
+
+    /** Читает файл, полученный в качестве параметра и формирует на его основе структуру департаментов
+     * @param inputFileName список всех департаментов
+     * @return Возвращает список департаментов
+     * @throws IOException При ошибках в исходном файле (нет ФИО, департамента, зарплаты..)
+     * @throws NumberFormatException При ошибках в указании зарплаты (отрицательная, не число)
+     * @see Department
+     * @see Employee
+     * @see LineParser
+     */
+    static ArrayList<Department> readFile(String inputFileName) throws IOException, NumberFormatException {
+        return readFile(inputFileName, "");
+    }
+
+    /** Читает файл, как {@link #readFile(String)}, добавляя к тексту ошибки разбора префикс
+     * @param inputFileName путь к исходному файлу
+     * @param messagePrefix префикс сообщения, например имя файла в пакетном режиме
+     * @return Возвращает список департаментов
+     * @throws IOException При ошибках в исходном файле (нет ФИО, департамента, зарплаты..)
+     * @throws NumberFormatException При ошибках в указании зарплаты (отрицательная, не число)
+     * @see BatchRunner
+     */
+    static ArrayList<Department> readFile(String inputFileName, String messagePrefix) throws IOException, NumberFormatException {
+        LineParser parser = new LineParser();
+        // Проходимся по файлу, разбираем строки, заполняем списки отделов и сотрудников
+        try (BufferedReader fileReader = new BufferedReader(new InputStreamReader(new FileInputStream(inputFileName), "windows-1251"))) {
+            String nextLine;
+            while ((nextLine = fileReader.readLine()) != null) {
+                try {
+                    parser.parseLine(nextLine);
+                } catch (IOException | NumberFormatException e) {
+                    printError(messagePrefix, e);
+                    throw e;
+                }
+            }
+        }
+        return parser.getDepartments();
+    }
+
+    /** Загружает орг.структуру из снимка. Если снимок прочитать не удалось, файл разбирается заново
+     * @param snapshot снимок исходного файла
+     * @return Возвращает список департаментов или null, если действующего снимка нет
+     * @see Snapshot
+     */
+    static ArrayList<Department> loadSnapshot(Snapshot snapshot) {
+        try {
+            return snapshot.load();
+        } catch (IOException e) {
+            System.out.println("Не удалось прочитать снимок исходного файла: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Сохраняет снимок разобранной орг.структуры. Если снимок сохранить не удалось, работа продолжается без него
+     * @param snapshot снимок исходного файла
+     * @param departments список всех департаментов
+     * @see Snapshot
+     */
+    static void saveSnapshot(Snapshot snapshot, ArrayList<Department> departments) {
+        try {
+            snapshot.save(departments);
+        } catch (IOException e) {
+            System.out.println("Не удалось сохранить снимок исходного файла: " + e.getMessage());
+        }
+    }
+
+    /** Выводит пользователю текст ошибки в исходном файле, если он есть
+     * @param e ошибка разбора строки
+     * @see LineParser#parseLine(String)
+     */
+    static void printError(Exception e) {
+        printError("", e);
+    }
+
+    /** Выводит пользователю текст ошибки в исходном файле с префиксом, если текст есть
+     * @param messagePrefix префикс сообщения
+     * @param e ошибка разбора строки
+     */
+    static void printError(String messagePrefix, Exception e) {
+        if (e.getMessage() != null) {
+            System.out.println(messagePrefix + e.getMessage());
+        }
+    }
+
+    /** Вычисляет возможные переходы сотрудников, удовлетворяющие условию, и передает их получателю
+     * @param departments список всех департаментов
+     * @param sink получатель переводов
+     * @throws IOException При ошибках вывода переводов
+     * @see Department#permutationIterator()
+     * @see Department#getListOfEmployees()
+     * @see Department#getAverageSalaryCents()
+     * @see PermutationIterator#getAverageSalaryCents()
+     * @see TargetIndex
+     */
+    static void makeDispositions(ArrayList<Department> departments, DispositionSink sink) throws IOException {
+        /*  Вычисляем перевод одного сотрудника
+            Для этого необходимы 2 условия:
+            1. Чтобы его ЗП была меньше средней по его отделу
+            2. Его ЗП должна быть больше средней по другому отделу
+        */
+        // Индекс отделов по средней ЗП строим один раз для всех отделов-источников
+        TargetIndex index = new TargetIndex(departments);
+        TargetIndex.Selection targets = index.newSelection();
+        for (Department dpt : departments) {
+            if (dpt.getListOfEmployees().size() <= 1) continue; // Переводить можно, только если в отделе останется хотя бы 1 сотрудник
+            // Пройдемся группам (перестановки) для каждого отдела.
+            // Перебор сам останавливается на первой группе, средняя ЗП которой больше средней текущего отдела
+            PermutationIterator groups = dpt.permutationIterator();
+            while (groups.nextGroup()) {
+                addDispositions(departments, dpt, groups, targets, sink);
+            }
+            long generated = groups.getGeneratedCount();
+            Metrics.addGroups(dpt, generated, PermutationIterator.getPermutationCount(dpt.getListOfEmployees().size()) - generated);
+        }
+    }
+
+    /** Вычисляет средние ЗП всех отделов один раз, чтобы не пересчитывать их для каждой группы
+     * @param departments список всех департаментов
+     * @return Возвращает средние ЗП отделов в копейках в порядке списка департаментов
+     */
+    static long[] getAverageSalaries(ArrayList<Department> departments) {
+        long[] averageDptSalaries = new long[departments.size()];
+        for (int i = 0; i < averageDptSalaries.length; i++) {
+            averageDptSalaries[i] = departments.get(i).getAverageSalaryCents();
+        }
+        return averageDptSalaries;
+    }
+
+    /** Передает получателю все переводы текущей группы перебора во все подходящие отделы
+     * @param departments список всех департаментов
+     * @param dpt отдел, ИЗ которого переводим
+     * @param groups перебор групп отдела, стоящий на очередной группе
+     * @param targets выборка отделов из индекса по средней ЗП
+     * @param sink получатель переводов
+     * @throws IOException При ошибках вывода переводов
+     * @see TargetIndex
+     */
+    static void addDispositions(ArrayList<Department> departments, Department dpt, PermutationIterator groups,
+                                TargetIndex.Selection targets, DispositionSink sink) throws IOException {
+        // Средняя ЗП этой группы не больше средней в отделе, выбираем отделы со средней ЗП ниже средней группы
+        int count = targets.select(groups.getAverageSalaryCents());
+        int[] indices = targets.getTargets();
+        for (int i = 0; i < count; i++) {
+            // Оба условия выполнены, передаем этих сотрудников как допустимую перестановку
+            sink.accept(dpt, departments.get(indices[i]), groups.getMask());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package transfers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/** Сверяет поиск обменов встречей посередине с перебором всех пар групп
+ * @author Виталий Юдин
+ * @version 1.0
+ * @see ExchangeSearch
+ */
+class ExchangeSearchTest {
+
+    @Test
+    void matchesBruteForce() throws IOException {
+        Random random = new Random(12);
+        for (int run = 0; run < RandomOrganizations.COUNT; run++) {
+            ArrayList<Department> departments = RandomOrganizations.create(random, 6);
+            List<String> found = new ArrayList<>();
+            assertTrue(ExchangeSearch.findExchanges(departments, Integer.MAX_VALUE, collect(departments, found)));
+
+            Set<String> expected = bruteForce(departments);
+            assertEquals(expected.size(), found.size(), "Количество обменов, прогон " + run);
+            assertEquals(expected, new HashSet<>(found), "Прогон " + run);
+
+            if (!found.isEmpty()) { // С пределом выводятся первые обмены в том же порядке
+                int limit = 1 + random.nextInt(found.size());
+                List<String> limited = new ArrayList<>();
+                boolean complete = ExchangeSearch.findExchanges(departments, limit, collect(departments, limited));
+                assertEquals(found.subList(0, limit), limited, "Предел " + limit + ", прогон " + run);
+                assertFalse(complete, "Поиск должен остановиться на пределе, прогон " + run);
+            }
+        }
+    }
+
+    private static ExchangeSink collect(ArrayList<Department> departments, List<String> found) {
+        return (first, firstMask, second, secondMask) ->
+                found.add(departments.indexOf(first) + ":" + firstMask + "/" + departments.indexOf(second) + ":" + secondMask);
+    }
+
+    /** Перебирает все пары групп всех пар отделов и оставляет обмены, при которых растут обе округленные средние */
+    private static Set<String> bruteForce(ArrayList<Department> departments) {
+        Set<String> exchanges = new HashSet<>();
+        for (int x = 0; x < departments.size(); x++) {
+            for (int y = x + 1; y < departments.size(); y++) {
+                Department first = departments.get(x);
+                Department second = departments.get(y);
+                int firstSize = first.getListOfEmployees().size();
+                int secondSize = second.getListOfEmployees().size();
+                for (long firstMask = 1; firstMask <= PermutationIterator.getPermutationCount(firstSize); firstMask++) {
+                    for (long secondMask = 1; secondMask <= PermutationIterator.getPermutationCount(secondSize); secondMask++) {
+                        long a = RandomOrganizations.groupSum(first, firstMask);
+                        long b = RandomOrganizations.groupSum(second, secondMask);
+                        int p = Long.bitCount(firstMask);
+                        int q = Long.bitCount(secondMask);
+                        if (Cents.average(first.getSalarySumCents() - a + b, firstSize - p + q) > first.getAverageSalaryCents()
+                                && Cents.average(second.getSalarySumCents() - b + a, secondSize - q + p) > second.getAverageSalaryCents()) {
+                            exchanges.add(x + ":" + firstMask + "/" + y + ":" + secondMask);
+                        }
+                    }
+                }
+            }
+        }
+        return exchanges;
+    }
+}
@@ -0,0 +1,81 @@
+package transfers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Сверяет чтение файла кусками с последовательным чтением. Куски берутся в несколько байт,
+ * чтобы отделы и сотрудники одного отдела попадали в разные куски
+ * @author Виталий Юдин
+ * @version 1.0
+ * @see MappedFileReader
+ */
+class MappedFileReaderTest {
+    private static final Charset CHARSET = Charset.forName("windows-1251");
+    /** Концы строк, которые понимает BufferedReader.readLine */
+    private static final String[] LINE_ENDS = {"\n", "\r\n", "\r\n\n"};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void matchesSequentialReading() throws IOException {
+        Random random = new Random(7);
+        Path input = directory.resolve("org.txt");
+        for (int run = 0; run < RandomOrganizations.COUNT; run++) {
+            Files.write(input, text(RandomOrganizations.create(random, 8), random).getBytes(CHARSET));
+            int parallelism = 1 + random.nextInt(4);
+            long minChunkSize = 1 + random.nextInt(64);
+            assertEquals(render(TransfersTestDrive.readFile(input.toString())),
+                    render(MappedFileReader.readFile(input.toString(), parallelism, minChunkSize)),
+                    "Прогон " + run + ", кусок " + minChunkSize + " байт");
+        }
+    }
+
+    @Test
+    void reportsFirstErrorOfFile() throws IOException {
+        Path input = directory.resolve("bad.txt");
+        Files.write(input, "Иванов; Отдел0; 100\nПетров; Отдел1\nСидоров; Отдел0; -5\n".getBytes(CHARSET));
+        IOException expected = assertThrows(IOException.class, () -> TransfersTestDrive.readFile(input.toString()));
+        IOException actual = assertThrows(IOException.class, () -> MappedFileReader.readFile(input.toString(), 3, 1));
+        assertEquals(expected.getMessage(), actual.getMessage());
+    }
+
+    /** Составляет текст файла со случайными концами строк */
+    private static String text(ArrayList<Department> departments, Random random) {
+        // Сотрудники разных отделов идут вперемешку, как в настоящих файлах
+        ArrayList<String> lines = new ArrayList<>();
+        for (Department dpt : departments) {
+            for (Employee employee : dpt.getListOfEmployees()) {
+                lines.add(employee.getName() + "; " + dpt.getName() + "; " + employee.getSalary());
+            }
+        }
+        Collections.shuffle(lines, random);
+        StringBuilder text = new StringBuilder();
+        for (String line : lines) {
+            text.append(line).append(LINE_ENDS[random.nextInt(LINE_ENDS.length)]);
+        }
+        return text.toString();
+    }
+
+    /** Представляет орг.структуру строками: отдел, затем сотрудники с зарплатами */
+    private static ArrayList<String> render(ArrayList<Department> departments) {
+        ArrayList<String> lines = new ArrayList<>();
+        for (Department dpt : departments) {
+            lines.add(dpt.getName());
+            for (Employee employee : dpt.getListOfEmployees()) {
+                lines.add(employee.getName() + ";" + employee.getSalary());
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,104 @@
+package transfers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/** Сверяет модель "что если" с полным перебором после каждого случайного изменения:
+ * переводы модели, список затронутых отделов и количество переводов между парами отделов
+ * @author Виталий Юдин
+ * @version 1.0
+ * @see OrgModel
+ */
+class OrgModelTest {
+    private static final int CHANGES = 20;
+
+    @Test
+    void matchesFullRecomputation() throws IOException {
+        Random random = new Random(11);
+        for (int run = 0; run < RandomOrganizations.COUNT; run++) {
+            check(RandomOrganizations.create(random, 7), random, "Прогон " + run);
+        }
+    }
+
+    /** Отдел, группы которого нельзя хранить, перебирается на ходу с тем же результатом */
+    @Test
+    void streamsLargeDepartments() throws IOException {
+        Random random = new Random(21);
+        for (int run = 0; run < 20; run++) {
+            ArrayList<Department> departments = RandomOrganizations.create(random, 7);
+            Department large = new Department("Большой");
+            for (int i = 0; i < 21; i++) {
+                large.addToEmployeeList(new Employee("Сотрудник " + i, RandomOrganizations.salary(random, 900)));
+            }
+            departments.add(random.nextInt(departments.size() + 1), large);
+            check(departments, random, "Большой отдел, прогон " + run);
+        }
+    }
+
+    /** Выполняет случайные изменения и после каждого сверяет модель с полным перебором */
+    private static void check(ArrayList<Department> departments, Random random, String run) throws IOException {
+        OrgModel model = new OrgModel(departments);
+        for (int change = 0; change < CHANGES; change++) {
+            Map<Department, List<String>> before = bySource(model);
+            List<Department> affected = change(model, departments, random);
+            Map<Department, List<String>> after = bySource(model);
+
+            List<String> expected = new ArrayList<>();
+            TransfersTestDrive.makeDispositions(departments, (from, to, mask) -> expected.add(format(from, to, mask)));
+            List<String> actual = new ArrayList<>();
+            model.makeDispositions((from, to, mask) -> actual.add(format(from, to, mask)));
+            String step = run + ", изменение " + change;
+            assertEquals(expected, actual, step);
+
+            for (Department dpt : departments) {
+                if (!before.getOrDefault(dpt, List.of()).equals(after.getOrDefault(dpt, List.of()))) {
+                    assertTrue(affected.contains(dpt), step + ": не отмечен отдел " + dpt.getName());
+                }
+            }
+            for (Department from : departments) {
+                for (Department to : departments) {
+                    String prefix = from.getName() + ">" + to.getName() + ":";
+                    long count = actual.stream().filter(s -> s.startsWith(prefix)).count();
+                    assertEquals(count, model.getDispositionCount(from, to), step + ": " + prefix);
+                }
+            }
+        }
+    }
+
+    /** Выполняет случайное изменение: добавление, удаление, смену зарплаты или перевод сотрудника */
+    private static List<Department> change(OrgModel model, ArrayList<Department> departments, Random random) {
+        Department dpt = departments.get(random.nextInt(departments.size()));
+        ArrayList<Employee> employees = dpt.getListOfEmployees();
+        int kind = random.nextInt(4);
+        if (kind == 0 || employees.isEmpty()) {
+            return model.addEmployee(dpt, new Employee("Новый", RandomOrganizations.salary(random, 900)));
+        }
+        Employee employee = employees.get(random.nextInt(employees.size()));
+        if (kind == 1) {
+            return model.removeEmployee(dpt, employee);
+        } else if (kind == 2) {
+            return model.updateSalary(dpt, employee, RandomOrganizations.salary(random, 900));
+        } else {
+            return model.moveEmployee(dpt, departments.get(random.nextInt(departments.size())), employee);
+        }
+    }
+
+    private static Map<Department, List<String>> bySource(OrgModel model) throws IOException {
+        Map<Department, List<String>> transfers = new HashMap<>();
+        model.makeDispositions((from, to, mask) ->
+                transfers.computeIfAbsent(from, dpt -> new ArrayList<>()).add(format(from, to, mask)));
+        return transfers;
+    }
+
+    private static String format(Department from, Department to, long mask) {
+        return from.getName() + ">" + to.getName() + ":" + mask;
+    }
+}
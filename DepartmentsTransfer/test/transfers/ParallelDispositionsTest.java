@@ -0,0 +1,42 @@
+package transfers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/** Сверяет параллельный поиск переводов с последовательным: те же переводы в том же порядке.
+ * Отделы берутся до 14 сотрудников, чтобы перебор отдела делился на несколько диапазонов масок
+ * @author Виталий Юдин
+ * @version 1.0
+ * @see ParallelDispositions
+ */
+class ParallelDispositionsTest {
+
+    @Test
+    void matchesSequentialSearch() throws IOException {
+        Random random = new Random(3);
+        for (int run = 0; run < RandomOrganizations.COUNT; run++) {
+            ArrayList<Department> departments = RandomOrganizations.create(random, 13);
+            if (random.nextBoolean()) {
+                // Руководитель с высокой зарплатой в конце списка: перебор останавливается только на его группах,
+                // то есть проходит несколько диапазонов масок
+                departments.get(0).addToEmployeeList(new Employee("Руководитель", BigDecimal.valueOf(5000)));
+            }
+            int parallelism = 2 + random.nextInt(3);
+            List<String> expected = new ArrayList<>();
+            TransfersTestDrive.makeDispositions(departments, (from, to, mask) -> expected.add(format(from, to, mask)));
+            List<String> actual = new ArrayList<>();
+            ParallelDispositions.makeDispositions(departments, parallelism, (from, to, mask) -> actual.add(format(from, to, mask)));
+            assertEquals(expected, actual, "Прогон " + run + ", потоков " + parallelism);
+        }
+    }
+
+    private static String format(Department from, Department to, long mask) {
+        return from.getName() + ">" + to.getName() + ":" + mask;
+    }
+}
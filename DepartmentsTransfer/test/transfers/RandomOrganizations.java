@@ -0,0 +1,77 @@
+package transfers;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Random;
+
+/** Случайные небольшие орг.структуры для сравнения с полным перебором.
+ * Часть структур получает зарплаты из узкого диапазона, чтобы чаще встречались равные суммы и средние
+ * @author Виталий Юдин
+ * @version 1.0
+ */
+class RandomOrganizations {
+    /** Количество случайных орг.структур в каждом тесте */
+    static final int COUNT = 400;
+
+    private RandomOrganizations() {
+    }
+
+    /** Создает случайную орг.структуру
+     * @param random генератор случайных чисел
+     * @param maxEmployees наибольшая численность отдела
+     * @return Возвращает от 2 до 5 отделов, в том числе, возможно, пустые
+     */
+    static ArrayList<Department> create(Random random, int maxEmployees) {
+        ArrayList<Department> departments = new ArrayList<>();
+        int departmentCount = 2 + random.nextInt(4);
+        int salaryRange = random.nextBoolean() ? 5 : 900;
+        for (int i = 0; i < departmentCount; i++) {
+            Department dpt = new Department("Отдел" + i);
+            int employeeCount = random.nextInt(maxEmployees + 1);
+            for (int j = 0; j < employeeCount; j++) {
+                dpt.addToEmployeeList(new Employee("Сотрудник " + i + "-" + j, salary(random, salaryRange)));
+            }
+            departments.add(dpt);
+        }
+        return departments;
+    }
+
+    /** Создает случайную зарплату с 0, 1 или 2 знаками после запятой */
+    static BigDecimal salary(Random random, int range) {
+        return BigDecimal.valueOf(100 + random.nextInt(range), random.nextInt(3));
+    }
+
+    /** Записывает орг.структуру в исходный файл: строки {@code Фамилия; Отдел; Зарплата} в windows-1251.
+     * Пустые отделы в файл не попадают
+     * @param departments список департаментов
+     * @param file исходный файл
+     * @throws IOException При ошибках записи файла
+     */
+    static void write(ArrayList<Department> departments, Path file) throws IOException {
+        ArrayList<String> lines = new ArrayList<>();
+        for (Department dpt : departments) {
+            for (Employee employee : dpt.getListOfEmployees()) {
+                lines.add(employee.getName() + "; " + dpt.getName() + "; " + employee.getSalary());
+            }
+        }
+        Files.write(file, lines, Charset.forName("windows-1251"));
+    }
+
+    /** Считает сумму зарплат группы в копейках
+     * @param dpt отдел
+     * @param mask маска группы
+     * @return Возвращает сумму зарплат группы
+     */
+    static long groupSum(Department dpt, long mask) {
+        long[] salaries = dpt.getSalaryCents();
+        long sum = 0;
+        for (int i = 0; i < salaries.length; i++) {
+            if ((mask & (1L << i)) != 0) sum += salaries[i];
+        }
+        return sum;
+    }
+}
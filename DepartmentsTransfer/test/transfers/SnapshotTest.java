@@ -0,0 +1,79 @@
+package transfers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Проверяет снимок разобранной орг.структуры: загруженный снимок совпадает с разбором файла,
+ * а устаревший, поврежденный или нечитаемый снимок не загружается
+ * @author Виталий Юдин
+ * @version 1.0
+ * @see Snapshot
+ */
+class SnapshotTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTrip() throws IOException {
+        Random random = new Random(14);
+        Path input = directory.resolve("org.txt");
+        for (int run = 0; run < RandomOrganizations.COUNT; run++) {
+            RandomOrganizations.write(RandomOrganizations.create(random, 8), input);
+            ArrayList<Department> parsed = TransfersTestDrive.readFile(input.toString());
+            new Snapshot(input.toString()).save(parsed);
+            assertEquals(render(parsed), render(new Snapshot(input.toString()).load()), "Прогон " + run);
+        }
+    }
+
+    @Test
+    void rejectsStaleSnapshot() throws IOException {
+        Path input = directory.resolve("org.txt");
+        RandomOrganizations.write(RandomOrganizations.create(new Random(15), 8), input);
+        new Snapshot(input.toString()).save(TransfersTestDrive.readFile(input.toString()));
+        FileTime modified = Files.getLastModifiedTime(input);
+        Files.write(input, "Иванов; Отдел0; 100".getBytes("windows-1251"));
+        Files.setLastModifiedTime(input, modified); // Время то же - отличаются размер и контрольная сумма
+        assertNull(new Snapshot(input.toString()).load());
+    }
+
+    @Test
+    void rejectsCorruptedSnapshot() throws IOException {
+        Path input = directory.resolve("org.txt");
+        RandomOrganizations.write(RandomOrganizations.create(new Random(16), 8), input);
+        new Snapshot(input.toString()).save(TransfersTestDrive.readFile(input.toString()));
+        Path snapshotFile = directory.resolve("org.txt.snap");
+        byte[] data = Files.readAllBytes(snapshotFile);
+        data[data.length / 2] ^= 1;
+        Files.write(snapshotFile, data);
+        assertNull(new Snapshot(input.toString()).load());
+    }
+
+    @Test
+    void unreadableSnapshotIsMiss() throws IOException {
+        Path input = directory.resolve("org.txt");
+        RandomOrganizations.write(RandomOrganizations.create(new Random(17), 8), input);
+        Files.createDirectory(directory.resolve("org.txt.snap")); // На месте снимка каталог - прочитать нельзя
+        assertNull(TransfersTestDrive.loadSnapshot(new Snapshot(input.toString())));
+    }
+
+    /** Представляет орг.структуру строками: отдел, затем сотрудники с зарплатами */
+    private static ArrayList<String> render(ArrayList<Department> departments) {
+        ArrayList<String> lines = new ArrayList<>();
+        for (Department dpt : departments) {
+            lines.add(dpt.getName());
+            for (Employee employee : dpt.getListOfEmployees()) {
+                lines.add(employee.getName() + ";" + employee.getSalary());
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,39 @@
+package transfers;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/** Сверяет выборку отделов-целей с проходом по всему списку: выборка правится на разницу
+ * с предыдущей группой и должна совпадать с построенной заново при любой последовательности средних
+ * @author Виталий Юдин
+ * @version 1.0
+ * @see TargetIndex
+ */
+class TargetIndexTest {
+    private static final int GROUPS = 50;
+
+    @Test
+    void matchesFullScan() {
+        Random random = new Random(9);
+        for (int run = 0; run < RandomOrganizations.COUNT; run++) {
+            ArrayList<Department> departments = RandomOrganizations.create(random, 4);
+            long[] averages = TransfersTestDrive.getAverageSalaries(departments);
+            TargetIndex.Selection selection = new TargetIndex(departments).newSelection();
+            for (int group = 0; group < GROUPS; group++) {
+                long groupAverage = random.nextInt(120_000);
+                int[] expected = new int[averages.length];
+                int count = 0;
+                for (int i = 0; i < averages.length; i++) {
+                    if (averages[i] < groupAverage) expected[count++] = i;
+                }
+                int selected = selection.select(groupAverage);
+                assertArrayEquals(Arrays.copyOf(expected, count), Arrays.copyOf(selection.getTargets(), selected),
+                        "Прогон " + run + ", группа " + group);
+            }
+        }
+    }
+}
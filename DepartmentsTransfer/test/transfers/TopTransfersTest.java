@@ -0,0 +1,72 @@
+package transfers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/** Сверяет поиск K лучших переводов с полным перебором: отсечение веток не должно терять переводы
+ * @author Виталий Юдин
+ * @version 1.0
+ * @see TopTransfers
+ */
+class TopTransfersTest {
+
+    @Test
+    void matchesBruteForce() throws IOException {
+        Random random = new Random(8);
+        for (int run = 0; run < RandomOrganizations.COUNT; run++) {
+            ArrayList<Department> departments = RandomOrganizations.create(random, 8);
+            int limit = 1 + random.nextInt(10);
+            List<String> found = new ArrayList<>();
+            TopTransfers.findTopDispositions(departments, limit, (from, to, mask) ->
+                    found.add(departments.indexOf(from) + ":" + mask + ":" + departments.indexOf(to)));
+
+            List<long[]> all = bruteForce(departments);
+            List<String> expected = new ArrayList<>();
+            for (long[] transfer : all.subList(0, Math.min(limit, all.size()))) {
+                expected.add(transfer[1] + ":" + transfer[2] + ":" + transfer[3]);
+            }
+            assertEquals(expected, found, "Прогон " + run);
+        }
+    }
+
+    /** Перебирает все переводы, при которых растут обе округленные средние, от лучшего к худшему.
+     * При равной оценке раньше идет перевод, стоящий раньше в полном списке
+     * @return Возвращает переводы: оценка, отдел-источник, маска группы, отдел-цель
+     */
+    private static List<long[]> bruteForce(ArrayList<Department> departments) {
+        List<long[]> transfers = new ArrayList<>();
+        for (int s = 0; s < departments.size(); s++) {
+            Department source = departments.get(s);
+            int n = source.getListOfEmployees().size();
+            // Весь отдел переводить нельзя
+            for (long mask = 1; mask < PermutationIterator.getPermutationCount(n); mask++) {
+                long groupSum = RandomOrganizations.groupSum(source, mask);
+                int groupSize = Long.bitCount(mask);
+                long sourceGain = Cents.average(source.getSalarySumCents() - groupSum, n - groupSize)
+                        - source.getAverageSalaryCents();
+                if (sourceGain <= 0) continue;
+                for (int t = 0; t < departments.size(); t++) {
+                    Department target = departments.get(t);
+                    int m = target.getListOfEmployees().size();
+                    if (t == s || m == 0) continue;
+                    long targetGain = Cents.average(target.getSalarySumCents() + groupSum, m + groupSize)
+                            - target.getAverageSalaryCents();
+                    if (targetGain > 0) {
+                        transfers.add(new long[]{sourceGain + targetGain, s, mask, t});
+                    }
+                }
+            }
+        }
+        transfers.sort(Comparator.comparingLong((long[] t) -> -t[0])
+                .thenComparingLong(t -> t[1])
+                .thenComparingLong(t -> t[2])
+                .thenComparingLong(t -> t[3]));
+        return transfers;
+    }
+}
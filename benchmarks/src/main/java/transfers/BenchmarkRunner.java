@@ -0,0 +1,35 @@
+package transfers;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/** Запускает замеры всех этапов расчета с профилировщиком GC, чтобы вместе с пропускной способностью
+ * выводилась и скорость выделения памяти (gc.alloc.rate, gc.alloc.rate.norm).
+ * Разбор параметров и запуск отдаются обычному org.openjdk.jmh.Main, поэтому работают все его параметры,
+ * в том числе {@code -l}, {@code -h}, {@code -lp}, {@code -lprof}, например {@code -p employees=20 ReadFileBenchmark}.
+ * @author Виталий Юдин
+ * @version 1.0
+ */
+public class BenchmarkRunner {
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Main.main(withGcProfiler(args));
+    }
+
+    /** Добавляет к параметрам профилировщик GC, если он еще не указан */
+    private static String[] withGcProfiler(String[] args) {
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals("-prof") && args[i + 1].startsWith("gc")) {
+                return args;
+            }
+        }
+        List<String> withProfiler = new ArrayList<>(Arrays.asList("-prof", "gc"));
+        withProfiler.addAll(Arrays.asList(args));
+        return withProfiler.toArray(new String[0]);
+    }
+}
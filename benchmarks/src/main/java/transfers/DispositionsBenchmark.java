@@ -0,0 +1,63 @@
+package transfers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/** Замер поиска переводов без вывода в файл: последовательный, параллельный и поиск K лучших.
+ * @author Виталий Юдин
+ * @version 1.0
+ * @see TransfersTestDrive#makeDispositions(ArrayList, DispositionSink)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DispositionsBenchmark {
+    @Param({"4", "16"})
+    public int departments;
+
+    @Param({"10", "16", "20"})
+    public int employees;
+
+    @Param({"UNIFORM", "ASCENDING"})
+    public OrgFileGenerator.Distribution distribution;
+
+    private ArrayList<Department> org;
+
+    @Setup
+    public void setUp() throws IOException {
+        org = TransfersTestDrive.readFile(OrgFileGenerator.generateTemp(departments, employees, distribution).toString());
+    }
+
+    @Benchmark
+    public void makeDispositions(Blackhole blackhole) throws IOException {
+        TransfersTestDrive.makeDispositions(org, (from, to, groupMask) -> blackhole.consume(groupMask));
+    }
+
+    @Benchmark
+    public void makeDispositionsParallel(Blackhole blackhole) throws IOException {
+        ParallelDispositions.makeDispositions(org, Runtime.getRuntime().availableProcessors(),
+                (from, to, groupMask) -> blackhole.consume(groupMask));
+    }
+
+    @Benchmark
+    public void topTen(Blackhole blackhole) throws IOException {
+        TopTransfers.findTopDispositions(org, 10, (from, to, groupMask) -> blackhole.consume(groupMask));
+    }
+}
@@ -0,0 +1,101 @@
+package transfers;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+
+/** Генератор синтетических исходных файлов орг.структуры для замеров производительности.
+ * Формат и кодировка те же, что у рабочих файлов: {@code Фамилия; Отдел; Зарплата} в windows-1251.
+ * Настраиваются число отделов, число сотрудников в отделе и распределение зарплат.
+ * @author Виталий Юдин
+ * @version 1.0
+ */
+public class OrgFileGenerator {
+    /** Распределение зарплат внутри отдела */
+    public enum Distribution {
+        /** Равномерно от 20 000 до 200 000 */
+        UNIFORM,
+        /** Нормально со средним 80 000 и отклонением 20 000 */
+        NORMAL,
+        /** Логнормально: много небольших зарплат и немного очень больших */
+        SKEWED,
+        /** По возрастанию в порядке списка: перебор групп не останавливается рано, худший случай */
+        ASCENDING
+    }
+
+    private OrgFileGenerator() {
+    }
+
+    /** Записывает синтетический файл
+     * @param file путь к файлу
+     * @param departments количество отделов
+     * @param employees количество сотрудников в каждом отделе
+     * @param distribution распределение зарплат
+     * @param seed начальное значение генератора случайных чисел, одинаковое значение дает одинаковый файл
+     * @throws IOException При ошибках записи файла
+     */
+    public static void generate(Path file, int departments, int employees, Distribution distribution, long seed) throws IOException {
+        Random random = new Random(seed);
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file.toFile()), "windows-1251"))) {
+            for (int d = 0; d < departments; d++) {
+                long base = 20_000 + random.nextInt(40_000);
+                for (int e = 0; e < employees; e++) {
+                    writer.write("Сотрудник " + d + "-" + e + "; Отдел " + d + "; " + salary(random, distribution, base, e));
+                    writer.write("\r\n");
+                }
+            }
+        }
+    }
+
+    /** Записывает синтетический файл во временный каталог, файл удаляется при выходе из JVM
+     * @param departments количество отделов
+     * @param employees количество сотрудников в каждом отделе
+     * @param distribution распределение зарплат
+     * @return Возвращает путь к файлу
+     * @throws IOException При ошибках записи файла
+     */
+    public static Path generateTemp(int departments, int employees, Distribution distribution) throws IOException {
+        Path file = Files.createTempFile("org-" + departments + "x" + employees + "-", ".txt");
+        file.toFile().deleteOnExit();
+        generate(file, departments, employees, distribution, 1);
+        return file;
+    }
+
+    private static String salary(Random random, Distribution distribution, long base, int position) {
+        double value;
+        switch (distribution) {
+            case NORMAL:
+                value = Math.max(1_000, 80_000 + random.nextGaussian() * 20_000);
+                break;
+            case SKEWED:
+                value = Math.exp(10.5 + random.nextGaussian() * 0.6);
+                break;
+            case ASCENDING:
+                value = base + position * 1_500 + random.nextInt(1_000);
+                break;
+            default:
+                value = 20_000 + random.nextDouble() * 180_000;
+        }
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    /** Генерирует файл из командной строки:
+     * {@code <файл> <отделов> <сотрудников в отделе> [UNIFORM|NORMAL|SKEWED|ASCENDING] [seed]}
+     * @param args аргументы командной строки
+     * @throws IOException При ошибках записи файла
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("Использование: OrgFileGenerator <файл> <отделов> <сотрудников в отделе> [UNIFORM|NORMAL|SKEWED|ASCENDING] [seed]");
+            return;
+        }
+        Distribution distribution = args.length > 3 ? Distribution.valueOf(args[3]) : Distribution.UNIFORM;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 1;
+        generate(Path.of(args[0]), Integer.parseInt(args[1]), Integer.parseInt(args[2]), distribution, seed);
+    }
+}
@@ -0,0 +1,64 @@
+package transfers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/** Замер перебора групп одного отдела - этап, который раньше строил все перестановки
+ * (calcAllPossiblePermutations). Полный перебор растет как 2^n, поэтому размеры отдела доходят до 30.
+ * @author Виталий Юдин
+ * @version 1.0
+ * @see PermutationIterator
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PermutationsBenchmark {
+    @Param({"10", "15", "20", "25", "30"})
+    public int employees;
+
+    @Param({"UNIFORM", "ASCENDING"})
+    public OrgFileGenerator.Distribution distribution;
+
+    private Department department;
+
+    @Setup
+    public void setUp() throws IOException {
+        department = TransfersTestDrive.readFile(
+                OrgFileGenerator.generateTemp(1, employees, distribution).toString()).get(0);
+    }
+
+    /** Все группы отдела без остановки по средней ЗП */
+    @Benchmark
+    public void allGroups(Blackhole blackhole) {
+        PermutationIterator groups = new PermutationIterator(department.getListOfEmployees(),
+                department.getSalaryCents(), Long.MAX_VALUE);
+        while (groups.nextGroup()) {
+            blackhole.consume(groups.getAverageSalaryCents());
+        }
+    }
+
+    /** Группы отдела так, как их перебирает поиск переводов: до первой группы со средней выше средней отдела */
+    @Benchmark
+    public void groupsBelowAverage(Blackhole blackhole) {
+        PermutationIterator groups = department.permutationIterator();
+        while (groups.nextGroup()) {
+            blackhole.consume(groups.getAverageSalaryCents());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package transfers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/** Замер чтения исходного файла: построчное чтение и чтение с отображением в память.
+ * @author Виталий Юдин
+ * @version 1.0
+ * @see TransfersTestDrive#readFile(String)
+ * @see MappedFileReader
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadFileBenchmark {
+    @Param({"100", "10000"})
+    public int departments;
+
+    @Param({"20"})
+    public int employees;
+
+    private String inputFileName;
+
+    @Setup
+    public void setUp() throws IOException {
+        inputFileName = OrgFileGenerator.generateTemp(departments, employees, OrgFileGenerator.Distribution.UNIFORM).toString();
+    }
+
+    @Benchmark
+    public ArrayList<Department> readFile() throws IOException {
+        return TransfersTestDrive.readFile(inputFileName);
+    }
+
+    @Benchmark
+    public ArrayList<Department> readFileMapped() throws IOException {
+        return MappedFileReader.readFile(inputFileName, Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,62 @@
+package transfers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/** Замер поиска переводов вместе с выводом отчета в файл - то же, что делает
+ * {@link TransfersTestDrive#writeResultToFile(ArrayList, String, Options)}, но без сообщений в консоль.
+ * Размеры меньше, чем в {@link DispositionsBenchmark}: отчет растет вместе с числом переводов.
+ * @author Виталий Юдин
+ * @version 1.0
+ * @see ReportWriter
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteResultBenchmark {
+    @Param({"4", "8"})
+    public int departments;
+
+    @Param({"8", "12"})
+    public int employees;
+
+    @Param({"UNIFORM", "ASCENDING"})
+    public OrgFileGenerator.Distribution distribution;
+
+    private ArrayList<Department> org;
+    private String outputFileName;
+
+    @Setup
+    public void setUp() throws IOException {
+        String inputFileName = OrgFileGenerator.generateTemp(departments, employees, distribution).toString();
+        File output = Files.createTempFile("transfers-", ".txt").toFile();
+        output.deleteOnExit();
+        outputFileName = output.getPath();
+        org = TransfersTestDrive.readFile(inputFileName);
+    }
+
+    @Benchmark
+    public void writeResultToFile() throws IOException {
+        try (ReportWriter report = new ReportWriter(org, outputFileName)) {
+            TransfersTestDrive.makeDispositions(org, report);
+        }
+    }
+}